@@ -0,0 +1,136 @@
+package demo.utils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the DOM reader (readDataFromExcel) with the streaming reader (streamDataFromExcel)
+ * on generated keyword sheets of unique terms, written as inline or shared strings: time to the first row,
+ * time to read every row, and peak heap use.
+ * The DOM reader needs several gigabytes of heap for the 1M-row sheet, hence the fork heap size.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx6g"})
+public class ExcelReaderBenchmark {
+    @State(Scope.Benchmark)
+    public static class Sheet1 {
+        @Param({"1000", "100000", "1000000"})
+        public int rows;
+
+        // Every term is distinct; "shared" stores them in the shared strings table, as Excel does,
+        // so the streaming reader has to look up as many shared strings as there are rows
+        @Param({"inline", "shared"})
+        public String strings;
+
+        public String filePath;
+
+        @Setup(Level.Trial)
+        public void generate() throws Exception {
+            File file = File.createTempFile("itemsToSearch-" + rows + "-", ".xlsx");
+            file.deleteOnExit();
+            filePath = file.getAbsolutePath();
+
+            // Write the sheet with the same layout as itemsToSearch.xlsx: a header row and one term per row
+            try (SXSSFWorkbook workbook = new SXSSFWorkbook(null, 100, false, "shared".equals(strings)); FileOutputStream out = new FileOutputStream(file)) {
+                Sheet sheet = workbook.createSheet("Sheet1");
+                sheet.createRow(0).createCell(0).setCellValue("Search Terms");
+                for (int i = 1; i <= rows; i++) {
+                    Row row = sheet.createRow(i);
+                    row.createCell(0).setCellValue("keyword " + i);
+                }
+                workbook.write(out);
+                workbook.dispose();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void delete() {
+            new File(filePath).delete();
+        }
+    }
+
+    /**
+     * Peak heap used during one benchmark invocation, reported next to the timing.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        public long peakHeapMb;
+
+        @Setup(Level.Invocation)
+        public void reset() {
+            System.gc();
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    pool.resetPeakUsage();
+                }
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void sample() {
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peak += pool.getPeakUsage().getUsed();
+                }
+            }
+            peakHeapMb = peak / (1024 * 1024);
+        }
+    }
+
+    @Benchmark
+    public Object domFirstRow(Sheet1 sheet, Heap heap) {
+        return ExcelUtils.readDataFromExcel(sheet.filePath, "Sheet1", 0)[0];
+    }
+
+    @Benchmark
+    public Object streamingFirstRow(Sheet1 sheet, Heap heap) {
+        Iterator<Object[]> rows = ExcelUtils.streamDataFromExcel(sheet.filePath, "Sheet1", 0);
+        Object[] first = rows.next();
+        ((ExcelRowIterator) rows).close();
+        return first;
+    }
+
+    @Benchmark
+    public void domAllRows(Sheet1 sheet, Heap heap, Blackhole blackhole) {
+        for (Object[] row : ExcelUtils.readDataFromExcel(sheet.filePath, "Sheet1", 0)) {
+            blackhole.consume(row);
+        }
+    }
+
+    @Benchmark
+    public void streamingAllRows(Sheet1 sheet, Heap heap, Blackhole blackhole) {
+        Iterator<Object[]> rows = ExcelUtils.streamDataFromExcel(sheet.filePath, "Sheet1", 0);
+        while (rows.hasNext()) {
+            blackhole.consume(rows.next());
+        }
+    }
+}
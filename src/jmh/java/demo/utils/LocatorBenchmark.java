@@ -0,0 +1,59 @@
+package demo.utils;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+
+/**
+ * Measures building the parameterized locators of the test cases inline, as TestCases used to,
+ * against looking them up in the Locators registry, which caches built locators.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LocatorBenchmark {
+    public String section = "Top selling";
+    public int numberOfNewsPosts = 3;
+
+    @Benchmark
+    public By shelfNextButton() {
+        return By.xpath("//span[contains(text(), '"+ section +"')]/ancestor::div[contains(@class, 'item-section')]//button[contains(@aria-label, 'Next')]");
+    }
+
+    @Benchmark
+    public By firstNNewsPosts() {
+        return By.xpath("(//span[contains(text(), 'Latest news post')]/ancestor::ytd-rich-section-renderer//ytd-post-renderer)[position() <= "+ numberOfNewsPosts +"]");
+    }
+
+    @Benchmark
+    public By searchBox() {
+        return By.xpath("//input[contains(@id, 'search')]");
+    }
+
+    @Benchmark
+    public By registryShelfNextButton() {
+        return Locators.shelfNextButton(section);
+    }
+
+    @Benchmark
+    public By registryFirstNNewsPosts() {
+        return Locators.latestNewsPosts(numberOfNewsPosts);
+    }
+
+    @Benchmark
+    public By registrySearchBox() {
+        return Locators.SEARCH_BOX;
+    }
+}
@@ -0,0 +1,86 @@
+package demo.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+
+/**
+ * Measures how long the browser takes to evaluate every locator of the registry on recorded pages,
+ * and lists them slowest first. Record the pages with -Dyt.replay=record, then profile against the
+ * recording with -Dyt.replay=replay so every run sees the same DOM:
+ * ./gradlew profileLocators -Dyt.replay=replay -Plocators.pages=https://www.youtube.com,https://www.youtube.com/feed/news_destination
+ */
+public class LocatorProfiler {
+    // Evaluations per timed batch; performance.now() is coarse, so single evaluations cannot be timed
+    private static final int RUNS_PER_BATCH = 50;
+    private static final int BATCHES = 7;
+
+    // Evaluates the locator from the document, as findElements does, and returns the median batch time per evaluation
+    private static final String PROFILE_SCRIPT = String.join("\n",
+            "var using = arguments[0], value = arguments[1], runs = arguments[2], batches = arguments[3];",
+            "function count() {",
+            "  if (using === 'xpath') {",
+            "    return document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null).snapshotLength;",
+            "  }",
+            "  return document.querySelectorAll(value).length;",
+            "}",
+            "var matches = count();",
+            "var times = [];",
+            "for (var b = 0; b < batches; b++) {",
+            "  var start = performance.now();",
+            "  for (var r = 0; r < runs; r++) { count(); }",
+            "  times.push((performance.now() - start) / runs);",
+            "}",
+            "times.sort(function (x, y) { return x - y; });",
+            "return {matches: matches, micros: Math.round(times[batches >> 1] * 1000), nodes: document.getElementsByTagName('*').length};");
+
+    public static void main(String[] args) throws IOException {
+        List<String> pages = (args.length > 0) ? Arrays.asList(args) : List.of("https://www.youtube.com");
+        File report = new File(System.getProperty("yt.reports.dir", "build/reports/locators"), "locator-timing.csv");
+
+        WebDriver driver = TrafficArchive.attach(BrowserProfile.apply(new ChromeDriver(BrowserProfile.options())));
+        List<Object[]> rows = new ArrayList<>();
+        try {
+            for (String page : pages) {
+                driver.get(page);
+                WaitEngine.until(driver, "profile:" + page, Duration.ofSeconds(20),
+                        d -> "complete".equals(((JavascriptExecutor) d).executeScript("return document.readyState;")));
+                for (Map.Entry<String, By> locator : Locators.all().entrySet()) {
+                    By.Remotable.Parameters parameters = DomExtractor.parameters(locator.getValue());
+                    @SuppressWarnings("unchecked")
+                    Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(
+                            PROFILE_SCRIPT, parameters.using(), parameters.value(), RUNS_PER_BATCH, BATCHES);
+                    rows.add(new Object[] {page, locator.getKey(), parameters.using(), parameters.value(),
+                            ((Number) result.get("matches")).longValue(), ((Number) result.get("micros")).longValue(), ((Number) result.get("nodes")).longValue()});
+                }
+            }
+        } finally {
+            driver.quit();
+        }
+
+        // Slowest first, so the locators worth rewriting are at the top
+        rows.sort(Comparator.comparingLong((Object[] row) -> (Long) row[5]).reversed());
+        Files.createDirectories(report.getParentFile().toPath());
+        try (PrintWriter writer = new PrintWriter(report, StandardCharsets.UTF_8)) {
+            writer.println("page,locator,using,value,matches,micros,domNodes");
+            for (Object[] row : rows) {
+                writer.println(String.format("\"%s\",\"%s\",%s,\"%s\",%s,%s,%s", row[0], row[1], row[2], row[3].toString().replace("\"", "\"\""), row[4], row[5], row[6]));
+                YouTubeUtils.logStatus("profile", String.format("%8d us %4d matches  %s  (%s)", row[5], row[4], row[1], row[0]));
+            }
+        }
+        YouTubeUtils.logStatus("profile", "Locator timings: " + report.getAbsolutePath());
+    }
+}
@@ -0,0 +1,65 @@
+package demo.utils;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of logging a step, single-threaded and with four threads logging at once
+ * as in a parallel suite run. Console output is discarded so only the logging path is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogStatusBenchmark {
+    private PrintStream console;
+
+    @Setup(Level.Trial)
+    public void discardConsole() {
+        console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreConsole() {
+        System.setOut(console);
+    }
+
+    @Benchmark
+    public String getDateTime() {
+        return YouTubeUtils.getDateTime("yyyy-MM-dd HH:mm:ss");
+    }
+
+    @Benchmark
+    public void logStatus() {
+        YouTubeUtils.logStatus("clickAW", "Clicking");
+    }
+
+    @Benchmark
+    public void logStatusTestStep() {
+        YouTubeUtils.logStatus("TC005", "Start", "Verify video views count: Movies");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void logStatusParallel() {
+        YouTubeUtils.logStatus("clickAW", "Clicking");
+    }
+}
@@ -0,0 +1,82 @@
+package demo.utils;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures de-duplicating a run of harvested video IDs, half of them repeated, with the packed primitive set
+ * and the Bloom filter against a HashSet of the ID strings. The strings are reused between invocations, so the HashSet
+ * gets their hash codes for free; run with "-prof gc" to compare allocations, and see VideoIdSet.bytesPerId for memory.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VideoIdSetBenchmark {
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    @Param({"10000"})
+    public int ids;
+
+    private String[] harvested;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        String[] distinct = new String[ids];
+        for (int i = 0; i < ids; i++) {
+            StringBuilder id = new StringBuilder(11);
+            for (int j = 0; j < 10; j++) {
+                id.append(ALPHABET.charAt(random.nextInt(64)));
+            }
+            distinct[i] = id.append(ALPHABET.charAt(random.nextInt(16) * 4)).toString();
+        }
+        harvested = new String[ids * 2];
+        for (int i = 0; i < harvested.length; i++) {
+            harvested[i] = distinct[(i < ids) ? i : random.nextInt(ids)];
+        }
+    }
+
+    @Benchmark
+    public long hashSetOfStrings() {
+        Set<String> seen = new HashSet<>();
+        for (String id : harvested) {
+            seen.add(id);
+        }
+        return seen.size();
+    }
+
+    @Benchmark
+    public long videoIdSet() {
+        VideoIdSet seen = VideoIdSet.hashSet();
+        for (String id : harvested) {
+            seen.add(id);
+        }
+        return seen.size();
+    }
+
+    @Benchmark
+    public long bloomFilter() {
+        VideoIdSet seen = VideoIdSet.bloomFilter(ids, 0.01);
+        for (String id : harvested) {
+            seen.add(id);
+        }
+        return seen.size();
+    }
+}
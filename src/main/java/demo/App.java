@@ -1,23 +1,221 @@
 package demo;
 
-import java.net.MalformedURLException;
+import java.io.File;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.openqa.selenium.WebDriver;
+
+import demo.utils.ActionsWrapper;
+import demo.utils.BrowserSessions;
+import demo.utils.CrawlCheckpoint;
+import demo.utils.DriverPool;
+import demo.utils.ExcelUtils;
+import demo.utils.FailureEvidence;
+import demo.utils.Locators;
+import demo.utils.PageMetrics;
+import demo.utils.ResultsExporter;
+import demo.utils.SeleniumGrid;
+import demo.utils.StepMetrics;
+import demo.utils.TabPrefetcher;
+import demo.utils.YouTubeUtils;
+
+/**
+ * Crawls the search terms of a keyword sheet outside TestNG, as a batch job. A reader thread streams the
+ * sheet into a bounded queue, and each term is crawled by its own task on a shared pool of browser sessions.
+ * At most one task per session runs at a time; while they are all busy the queue fills up and the reader waits,
+ * so memory stays bounded however long the sheet is. Throughput and session utilization are logged as it runs.
+ */
 public class App {
-    public void getGreeting() throws InterruptedException, MalformedURLException {
-        // This is to remove unnecessary warnings from your console
-        System.setProperty("java.util.logging.config.file", "logging.properties");
+    // Queued by the reader after the last term
+    private static final Object[] END = new Object[0];
 
-        TestCases tests = new TestCases(); // Initialize your test class
+    private final int sessions;
+    private final long targetViews;
+    private final DriverPool pool;
+    private final BlockingQueue<Object[]> queue;
+    private final Semaphore running;
 
-        // TODO: call your test case functions one after other here
-        // START Tests
-        tests.testCase01();
+    private final AtomicInteger read = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicLong leasedNanos = new AtomicLong();
+    private long startNanos;
 
-        // END Tests
-        tests.endTest(); // End your test by clearing connections and closing browser
+    /**
+     * Creates a runner crawling on the given number of browser sessions.
+     *
+     * @param sessions The number of browser sessions, and of terms crawled at the same time.
+     * @param queueSize The number of terms read ahead of the sessions.
+     * @param targetViews The views to count for each term before moving on to the next one.
+     */
+    public App(int sessions, int queueSize, long targetViews) {
+        this.sessions = sessions;
+        this.targetViews = targetViews;
+        this.pool = BrowserSessions.pool(sessions);
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.running = new Semaphore(sessions);
     }
 
-    public static void main(String[] args) throws InterruptedException, MalformedURLException {
-        new App().getGreeting();
+    /**
+     * Crawls every search term of the first column of a sheet, skipping its header row and terms an earlier run
+     * finished (see CrawlCheckpoint), and returns once all terms are done.
+     *
+     * @param filePath The file path of the Excel file to read the terms from.
+     * @param sheetName The name of the sheet holding the terms.
+     * @throws InterruptedException If the runner is interrupted while waiting for the terms.
+     */
+    public void run(String filePath, String sheetName) throws InterruptedException {
+        startNanos = System.nanoTime();
+        ResultsExporter.open();
+
+        // Read the sheet ahead of the sessions, waiting whenever the queue is full
+        Thread reader = new Thread(() -> read(filePath, sheetName), "sheet-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "crawl-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long reportSeconds = Long.getLong("yt.crawl.reportSeconds", 30);
+        reporter.scheduleAtFixedRate(() -> report("progress"), reportSeconds, reportSeconds, TimeUnit.SECONDS);
+
+        // One virtual thread per term, so the tasks waiting on the browser cost no platform thread each
+        ExecutorService tasks = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            while (true) {
+                Object[] row = queue.take();
+                if (row == END) {
+                    break;
+                }
+
+                // Start a task only when a session is free, so queued terms wait in the bounded queue
+                running.acquire();
+                tasks.execute(() -> crawl((Integer) row[0], (String) row[1]));
+            }
+            tasks.shutdown();
+            tasks.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        } finally {
+            tasks.shutdownNow();
+            reporter.shutdownNow();
+            pool.shutdown();
+            ResultsExporter.close();
+            FailureEvidence.awaitWritten();
+            File reports = new File(System.getProperty("yt.reports.dir", "build/reports/steps"));
+            StepMetrics.export(reports);
+            PageMetrics.export(reports);
+        }
+        report("done");
+    }
+
+    // Streams the terms into the queue, tagged with their 1-based row numbers, followed by END
+    private void read(String filePath, String sheetName) {
+        try {
+            Iterator<Object[]> rows = ExcelUtils.streamDataFromExcel(filePath, sheetName, 0);
+            int rowNumber = 0;
+            while (rows.hasNext()) {
+                Object value = rows.next()[0];
+                rowNumber++;
+                if (value == null || CrawlCheckpoint.isFinished(String.valueOf(value))) {
+                    continue;
+                }
+                queue.put(new Object[]{rowNumber, String.valueOf(value)});
+                read.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            YouTubeUtils.logStatus("read", "Exception\n\t\t\t" + e.getMessage());
+        } finally {
+            try {
+                queue.put(END);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Searches one term on a leased session and counts its videos, as TestCase005 does
+    private void crawl(int rowNumber, String term) {
+        YouTubeUtils.setTestContext("crawl", rowNumber);
+        long leased = 0;
+        try {
+            WebDriver driver = pool.lease();
+            leased = System.nanoTime();
+            boolean done = false;
+            try {
+                TabPrefetcher.open(driver, "https://www.youtube.com");
+                // The wrappers log and swallow their exceptions, so count the term done only when both steps say so
+                done = ActionsWrapper.sendKeysAW(driver, Locators.SEARCH_BOX, term)
+                        && YouTubeUtils.scrollTillVideoCountReaches(driver, term, targetViews);
+            } catch (RuntimeException e) {
+                YouTubeUtils.logStatus("crawl", "Exception\n\t\t\t" + e.getMessage());
+            }
+            if (done) {
+                completed.incrementAndGet();
+                pool.release();
+            } else {
+                // The session may be broken, so start a new one for the next term
+                YouTubeUtils.logStatus("crawl", "Failed: " + term);
+                FailureEvidence.testFailed(driver, "crawl");
+                failed.incrementAndGet();
+                pool.discard();
+            }
+        } catch (RuntimeException e) {
+            YouTubeUtils.logStatus("crawl", "Exception\n\t\t\t" + e.getMessage());
+            failed.incrementAndGet();
+        } finally {
+            if (leased > 0) {
+                leasedNanos.addAndGet(System.nanoTime() - leased);
+            }
+            YouTubeUtils.clearTestContext();
+            running.release();
+        }
+    }
+
+    // Logs the terms per minute and the share of the sessions' time spent leased to a task
+    private void report(String stage) {
+        double minutes = (System.nanoTime() - startNanos) / 60e9;
+        int done = completed.get() + failed.get();
+        double utilization = leasedNanos.get() / (sessions * minutes * 60e9);
+        YouTubeUtils.logStatus("report", String.format("%s: %s of %s terms done (%s failed), %s running, %s queued, %.1f terms/min, session utilization %.0f%%",
+                stage, done, read.get(), failed.get(), sessions - running.availablePermits(), queue.size(), done / minutes, utilization * 100));
+    }
+
+    /**
+     * Crawls a keyword sheet. Arguments: the Excel file (src/test/resources/itemsToSearch.xlsx by default)
+     * and the sheet name ("Sheet1" by default). Settings: -Dyt.sessions (the grid's slots on a Selenium Grid, 2 otherwise),
+     * -Dyt.crawl.queue (twice the sessions), -Dyt.crawl.views (views counted per term, 10 crore) and
+     * -Dyt.crawl.reportSeconds (30), besides the browser and harvest settings of the test suite.
+     *
+     * @param args The command line arguments.
+     * @throws InterruptedException If the crawl is interrupted.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        // This is to remove unnecessary warnings from your console
+        System.setProperty("java.util.logging.config.file", "logging.properties");
+
+        String filePath = (args.length > 0) ? args[0] : String.join(File.separator, System.getProperty("user.dir"), "src", "test", "resources", "itemsToSearch.xlsx");
+        String sheetName = (args.length > 1) ? args[1] : "Sheet1";
+
+        URL grid = SeleniumGrid.url();
+        int slots = (grid != null) ? SeleniumGrid.slots(grid) : 0;
+        int sessions = Math.max(1, Integer.getInteger("yt.sessions", (slots > 0) ? slots : 2));
+        int queueSize = Math.max(1, Integer.getInteger("yt.crawl.queue", sessions * 2));
+        long targetViews = Long.getLong("yt.crawl.views", 10_00_00_000);
+
+        YouTubeUtils.logStatus("main", String.format("Crawling %s (%s) on %s sessions, %s terms read ahead", filePath, sheetName, sessions, queueSize));
+        new App(sessions, queueSize, targetViews).run(filePath, sheetName);
     }
 }
@@ -6,8 +6,6 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 public class ActionsWrapper {
     /**
@@ -17,19 +15,16 @@ public class ActionsWrapper {
      * @param driver The WebDriver instance to use for locating the element and sending keys.
      * @param locator The locator strategy used to find the web element.
      * @param text The text to be sent to the web element.
+     * @return True if the text was sent, false if the element could not be found or typed into.
      */
-    public static void sendKeysAW(WebDriver driver, By locator, String text) {
+    public static boolean sendKeysAW(WebDriver driver, By locator, String text) {
+        PageMetrics.Sample before = PageMetrics.sample(driver);
+        long start = System.nanoTime();
         try {
             YouTubeUtils.logStatus("sendKeysAW", "Sending keys");
 
-            // Setting up WebDriverWait with a timeout of 20 seconds
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(20));
-
-            // Waiting for the element to be visible
-            wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
-
-            // Locating the web element
-            WebElement element = driver.findElement(locator);
+            // Waiting up to 20 seconds for the element to be visible
+            WebElement element = WaitEngine.visible(driver, locator, Duration.ofSeconds(20));
 
             // Clearing any existing text in the element
             element.clear();
@@ -39,8 +34,14 @@ public class ActionsWrapper {
 
             // Sending ENTER key press after sending the text
             element.sendKeys(Keys.ENTER);
+            return true;
         } catch (Exception e) {
             YouTubeUtils.logStatus("sendKeysAW", "Exception while sending keys\n" + e.getMessage());
+            FailureEvidence.stepFailed(driver, "sendKeysAW");
+            return false;
+        } finally {
+            StepMetrics.record("sendKeysAW", locator, start);
+            PageMetrics.record("sendKeysAW", locator, driver, before);
         }
     }
 
@@ -52,22 +53,22 @@ public class ActionsWrapper {
      * @param locator The locator strategy used to find the web element.
      */
     public static void clickAW(WebDriver driver, By locator) {
+        PageMetrics.Sample before = PageMetrics.sample(driver);
+        long start = System.nanoTime();
         try {
             YouTubeUtils.logStatus("clickAW", "Clicking");
 
-            // Setting up WebDriverWait with a timeout of 20 seconds
-            WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(20));
-
-            // Waiting for the element to be visible
-            wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
-
-            // Locating the web element
-            WebElement element = driver.findElement(locator);
+            // Waiting up to 20 seconds for the element to be visible
+            WebElement element = WaitEngine.visible(driver, locator, Duration.ofSeconds(20));
 
             // Clicking the element
             element.click();
         } catch (Exception e) {
             YouTubeUtils.logStatus("clickAW", "Exception while clicking\n" + e.getMessage());
+            FailureEvidence.stepFailed(driver, "clickAW");
+        } finally {
+            StepMetrics.record("clickAW", locator, start);
+            PageMetrics.record("clickAW", locator, driver, before);
         }
     }
 }
@@ -0,0 +1,89 @@
+package demo.utils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+
+public class BrowserProfile {
+    // Images, video streams and ads the tests never assert on, as DevTools URL patterns
+    private static final List<String> BLOCKED_URLS = List.of(
+            "*.jpg", "*.jpeg", "*.png", "*.gif", "*.webp", "*.avif", "*.ico",
+            "*.mp4", "*.webm", "*.m4a",
+            "*i.ytimg.com/*", "*yt3.ggpht.com/*", "*googlevideo.com/videoplayback*",
+            "*doubleclick.net/*", "*googlesyndication.com/*", "*googleadservices.com/*",
+            "*youtube.com/pagead/*", "*youtube.com/api/stats/ads*", "*youtube.com/ptracking*");
+
+    /**
+     * Returns the Chrome options of the profile selected by the "yt.profile" system property, "default" if not set.
+     *
+     * @return The Chrome options of the selected profile.
+     */
+    public static ChromeOptions options() {
+        return options(name());
+    }
+
+    /**
+     * Returns the Chrome options of the given profile:
+     * "default" opens a maximized window and waits for every resource of a page, as a user would see it;
+     * "fast" runs headless, stops waiting for a page once its DOM is ready and does not autoplay videos.
+     * Both keep the browser console, so it can be saved as evidence of a failure.
+     *
+     * @param profile The name of the profile.
+     * @return The Chrome options of the profile.
+     * @throws IllegalArgumentException If there is no profile with the given name.
+     */
+    public static ChromeOptions options(String profile) {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--disable-blink-features=AutomationControlled");
+        LoggingPreferences logs = new LoggingPreferences();
+        logs.enable(LogType.BROWSER, Level.ALL);
+        options.setCapability("goog:loggingPrefs", logs);
+        switch (profile) {
+            case "default":
+                options.addArguments("start-maximized");
+                break;
+            case "fast":
+                options.addArguments("--headless=new");
+                options.addArguments("--window-size=1920,1080");
+                options.addArguments("--autoplay-policy=user-gesture-required");
+                options.addArguments("--mute-audio");
+                options.setPageLoadStrategy(PageLoadStrategy.EAGER);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown yt.profile: " + profile);
+        }
+        return options;
+    }
+
+    /**
+     * Applies the parts of the selected profile that need a running session. The "fast" profile blocks
+     * image, media and ad requests through DevTools, so pages do not wait for bytes no test reads.
+     *
+     * @param driver The new WebDriver session.
+     * @return The same WebDriver session.
+     */
+    public static WebDriver apply(WebDriver driver) {
+        if (!"fast".equals(name())) {
+            return driver;
+        }
+        if (!(driver instanceof HasCdp)) {
+            YouTubeUtils.logStatus("apply", "Request blocking needs DevTools, not available for " + driver.getClass().getSimpleName());
+            return driver;
+        }
+        HasCdp cdp = (HasCdp) driver;
+        cdp.executeCdpCommand("Network.enable", Map.of());
+        cdp.executeCdpCommand("Network.setBlockedURLs", Map.of("urls", BLOCKED_URLS));
+        return driver;
+    }
+
+    private static String name() {
+        return System.getProperty("yt.profile", "default");
+    }
+}
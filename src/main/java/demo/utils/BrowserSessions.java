@@ -0,0 +1,44 @@
+package demo.utils;
+
+import java.net.URL;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+public class BrowserSessions {
+    /**
+     * Creates a pool of Chrome sessions with the browser profile selected by -Dyt.profile, opened on the
+     * Selenium Grid given by -Dyt.grid.url, attached to warm browsers with -Dyt.warm=true, or started locally.
+     * Every session records or replays its traffic when -Dyt.replay is set.
+     *
+     * @param maxSessions The maximum number of sessions that may be open at the same time.
+     * @return The pool; sessions are started on the first leases.
+     */
+    public static DriverPool pool(int maxSessions) {
+        // Setting up ChromeOptions of the browser profile selected by -Dyt.profile
+        ChromeOptions options = BrowserProfile.options();
+
+        URL grid = SeleniumGrid.url();
+        if (grid != null) {
+            // Open the sessions on the nodes of a Selenium Grid
+            return new DriverPool(maxSessions, () -> setUp(SeleniumGrid.newDriver(grid, options)));
+        }
+        if (Boolean.getBoolean("yt.warm")) {
+            // Attach to browsers kept running across runs, recycled after a number of tests
+            WarmBrowser warm = new WarmBrowser(options, driver -> TrafficArchive.attach(BrowserProfile.apply(driver)));
+            return new DriverPool(maxSessions, warm, warm);
+        }
+        return new DriverPool(maxSessions, () -> setUp(new ChromeDriver(options)));
+    }
+
+    // Applies the browser profile and traffic archive to a new session, ending the session if they fail
+    private static WebDriver setUp(WebDriver driver) {
+        try {
+            return TrafficArchive.attach(BrowserProfile.apply(driver));
+        } catch (RuntimeException e) {
+            driver.quit();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package demo.utils;
+
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+public class Carousel {
+    // Clicks the shelf's "Next" button from inside the page until it is hidden, which is how the shelf
+    // marks its end, or until the target item is in view. Returns the clicks made and the items loaded.
+    private static final String NAVIGATE_SCRIPT = String.join("\n",
+            "var using = arguments[0], value = arguments[1], target = arguments[2], findTimeoutMs = arguments[3], timeoutMs = arguments[4];",
+            "var done = arguments[arguments.length - 1];",
+            "var started = Date.now(), clicks = 0, hiddenChecks = 0;",
+            "function find() {",
+            "  if (using === 'xpath') {",
+            "    return document.evaluate(value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;",
+            "  }",
+            "  return document.querySelector(value);",
+            "}",
+            "function shown(element) {",
+            "  return element.getClientRects().length > 0 && getComputedStyle(element).visibility !== 'hidden';",
+            "}",
+            "function shelfOf(button) {",
+            "  return button.closest('yt-horizontal-list-renderer, ytd-horizontal-card-list-renderer, ytd-shelf-renderer') || button.parentElement;",
+            "}",
+            "function items(shelf) {",
+            "  var container = shelf.querySelector('#items');",
+            "  return container ? container.children : [];",
+            "}",
+            "function inView(shelf, index) {",
+            "  var list = items(shelf);",
+            "  if (index >= list.length) { return false; }",
+            "  return list[index].getBoundingClientRect().right <= shelf.getBoundingClientRect().right + 1;",
+            "}",
+            "function step() {",
+            "  var button = find();",
+            "  var timedOut = Date.now() - started > timeoutMs;",
+            "  if (!button) {",
+            "    if (Date.now() - started > findTimeoutMs) { done({found: false, atEnd: false, clicks: clicks, items: 0}); } else { setTimeout(step, 50); }",
+            "    return;",
+            "  }",
+            "  var shelf = shelfOf(button);",
+            "  var reached = target >= 0 && inView(shelf, target);",
+            "  hiddenChecks = shown(button) ? 0 : hiddenChecks + 1;",
+            "  if (reached || hiddenChecks >= 2 || timedOut) {",
+            "    done({found: true, atEnd: hiddenChecks >= 2, clicks: clicks, items: items(shelf).length});",
+            "    return;",
+            "  }",
+            "  if (hiddenChecks === 0) { button.click(); clicks++; }",
+            "  setTimeout(step, 100);",
+            "}",
+            "step();");
+
+    /**
+     * Moves a shelf to its last item in one script call, by clicking its "Next" button in the page until the
+     * shelf hides it. The end of the shelf is detected from the DOM, so no exception is needed to stop.
+     *
+     * @param driver The WebDriver instance where the shelf is located.
+     * @param nextButtonLocator The By locator (XPath or CSS) of the shelf's "Next" button.
+     * @param findTimeoutMillis The longest time to wait for the button to appear.
+     * @param timeoutMillis The longest time to spend navigating, which must stay below the driver's script timeout.
+     * @return The result of the navigation: "found", "atEnd", "clicks" and "items" (the number of items loaded).
+     */
+    public static Map<String, Object> scrollToEnd(WebDriver driver, By nextButtonLocator, long findTimeoutMillis, long timeoutMillis) {
+        return navigate(driver, nextButtonLocator, -1, findTimeoutMillis, timeoutMillis);
+    }
+
+    /**
+     * Moves a shelf until the item at the given position is in view, in one script call.
+     *
+     * @param driver The WebDriver instance where the shelf is located.
+     * @param nextButtonLocator The By locator (XPath or CSS) of the shelf's "Next" button.
+     * @param index The 0-based position of the item to bring into view.
+     * @param findTimeoutMillis The longest time to wait for the button to appear.
+     * @param timeoutMillis The longest time to spend navigating, which must stay below the driver's script timeout.
+     * @return The result of the navigation: "found", "atEnd", "clicks" and "items" (the number of items loaded).
+     */
+    public static Map<String, Object> scrollToItem(WebDriver driver, By nextButtonLocator, int index, long findTimeoutMillis, long timeoutMillis) {
+        return navigate(driver, nextButtonLocator, index, findTimeoutMillis, timeoutMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> navigate(WebDriver driver, By nextButtonLocator, int index, long findTimeoutMillis, long timeoutMillis) {
+        By.Remotable.Parameters button = ((By.Remotable) nextButtonLocator).getRemoteParameters();
+        return (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(NAVIGATE_SCRIPT, button.using(), button.value(), index, findTimeoutMillis, timeoutMillis);
+    }
+}
@@ -0,0 +1,152 @@
+package demo.utils;
+
+public class CountParser {
+    // Multiplier words, matched case-insensitively against the whole word following the number
+    private static final String[] SUFFIXES = {
+        "k", "thousand", "tsd", "mil", "m", "mn", "mi", "million", "mio", "b", "bn", "billion", "mrd",
+        "l", "lac", "lakh", "lakhs", "cr", "crore", "crores",
+        // Hindi thousand, lakh and crore, with and without precomposed nukta letters
+        "\u0939\u091C\u093C\u093E\u0930", "\u0939\u095B\u093E\u0930", "\u0939\u091C\u093E\u0930", "\u0932\u093E\u0916", "\u0915\u0930\u094B\u0921\u093C", "\u0915\u0930\u094B\u095C"
+    };
+    private static final long[] MULTIPLIERS = {
+        1_000L, 1_000L, 1_000L, 1_000L, 1_000_000L, 1_000_000L, 1_000_000L, 1_000_000L, 1_000_000L, 1_000_000_000L, 1_000_000_000L, 1_000_000_000L, 1_000_000_000L,
+        1_00_000L, 1_00_000L, 1_00_000L, 1_00_000L, 1_00_00_000L, 1_00_00_000L, 1_00_00_000L,
+        1_000L, 1_000L, 1_000L, 1_00_000L, 1_00_00_000L, 1_00_00_000L
+    };
+
+    // Powers of ten used to scale the digits after the decimal separator
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
+
+    /**
+     * Parses a view or like count as displayed by YouTube into its exact value, without allocating.
+     * Handles plain and grouped numbers ("1 view", "1,234,567 views", "1.234.567 Aufrufe", "12,34,567"),
+     * abbreviated counts ("1.2K", "3,4 Mio.", "1.5B", "12 lakh", "1.2 crore", "1.2\u4E07") and "No views".
+     * A fraction is only kept when a multiplier follows it; without one, separators are read as grouping.
+     *
+     * @param text The text representation of the count to parse.
+     * @return The count as a long integer, 0 for "No ..." and for null or blank text.
+     * @throws NumberFormatException If the text does not start with a count, or the count does not fit in a long.
+     */
+    public static long parse(CharSequence text) {
+        try {
+            return parseExact(text);
+        } catch (ArithmeticException e) {
+            // Overflowing digits or multipliers are garbage too, to the callers
+            throw new NumberFormatException("Count out of range: " + text);
+        }
+    }
+
+    private static long parseExact(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        int length = text.length();
+        int i = skipSpaces(text, 0);
+        if (i == length || startsWithNo(text, i)) {
+            return 0;
+        }
+        if (!isDigit(text.charAt(i))) {
+            throw new NumberFormatException("Not a count: " + text);
+        }
+
+        // Read the digits, remembering the last separator and how many digits follow it
+        long mantissa = 0;
+        int digitsAfterSeparator = 0;
+        char separator = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                mantissa = Math.addExact(Math.multiplyExact(mantissa, 10), c - '0');
+                digitsAfterSeparator++;
+            } else if ((c == '.' || c == ',' || c == '\'' || isSpace(c)) && i + 1 < length && isDigit(text.charAt(i + 1))) {
+                separator = c;
+                digitsAfterSeparator = 0;
+            } else {
+                break;
+            }
+            i++;
+        }
+
+        long multiplier = multiplier(text, skipSpaces(text, i));
+
+        // The last dot or comma is a decimal separator only for abbreviated counts, and a comma
+        // followed by exactly three digits is still grouping ("1,234K" is not "1.234K")
+        boolean decimal = multiplier > 1
+                && (separator == '.' || (separator == ',' && digitsAfterSeparator != 3))
+                && digitsAfterSeparator < POWERS_OF_TEN.length;
+        if (!decimal) {
+            return Math.multiplyExact(mantissa, multiplier);
+        }
+        return Math.multiplyExact(mantissa, multiplier) / POWERS_OF_TEN[digitsAfterSeparator];
+    }
+
+    /**
+     * Returns the multiplier of the word starting at the given position, or 1 if it is not a multiplier word.
+     * A CJK myriad sign (10^4 or 10^8) multiplies even when other characters follow it without a space.
+     */
+    private static long multiplier(CharSequence text, int start) {
+        if (start >= text.length()) {
+            return 1;
+        }
+        char first = text.charAt(start);
+        if (first == '\u4E07' || first == '\u842C' || first == '\uB9CC') {
+            return 10_000L;
+        }
+        if (first == '\u5104' || first == '\u4EBF' || first == '\uC5B5') {
+            return 100_000_000L;
+        }
+
+        // Find the end of the word, keeping the combining marks of Indic scripts
+        int end = start;
+        while (end < text.length() && isWordChar(text.charAt(end))) {
+            end++;
+        }
+        for (int s = 0; s < SUFFIXES.length; s++) {
+            if (equalsIgnoreCase(text, start, end, SUFFIXES[s])) {
+                return MULTIPLIERS[s];
+            }
+        }
+        return 1;
+    }
+
+    private static boolean equalsIgnoreCase(CharSequence text, int start, int end, String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.toLowerCase(text.charAt(start + i)) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWithNo(CharSequence text, int start) {
+        return start + 1 < text.length()
+                && Character.toLowerCase(text.charAt(start)) == 'n'
+                && Character.toLowerCase(text.charAt(start + 1)) == 'o'
+                && (start + 2 == text.length() || !isWordChar(text.charAt(start + 2)));
+    }
+
+    private static int skipSpaces(CharSequence text, int start) {
+        int i = start;
+        while (i < text.length() && isSpace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // Regular, no-break, narrow no-break and thin spaces all appear as group separators
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\u00A0' || c == '\u202F' || c == '\u2009' || c == '\t';
+    }
+
+    private static boolean isWordChar(char c) {
+        int type = Character.getType(c);
+        return Character.isLetter(c) || type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+}
@@ -0,0 +1,204 @@
+package demo.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+public class CrawlCheckpoint {
+    private static final Json JSON = new Json();
+
+    // Null unless -Dyt.checkpoint gives a journal file
+    private static final CrawlCheckpoint INSTANCE = open(System.getProperty("yt.checkpoint"));
+
+    private final Path journal;
+    private final Map<String, State> states = new ConcurrentHashMap<>();
+    private final BlockingQueue<String> pending = new LinkedBlockingQueue<>();
+    private final Thread writer = new Thread(this::drain, "checkpoint-writer");
+
+    private CrawlCheckpoint(Path journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Checks whether a search term was finished by an earlier run using the same journal.
+     *
+     * @param term The search term.
+     * @return True if the term is finished, false if it is not or checkpoints are disabled.
+     */
+    public static boolean isFinished(String term) {
+        State state = (INSTANCE == null || term == null) ? null : INSTANCE.states.get(term);
+        return state != null && state.finished;
+    }
+
+    /**
+     * Returns how far an earlier run got with a search term, so a rerun can continue from there.
+     *
+     * @param term The search term.
+     * @return An array holding the number of results already harvested and the views counted from them,
+     *         {0, 0} if the term was not started or checkpoints are disabled.
+     */
+    public static long[] resume(String term) {
+        State state = (INSTANCE == null || term == null) ? null : INSTANCE.states.get(term);
+        return (state == null) ? new long[]{0, 0} : new long[]{state.cursor, state.views};
+    }
+
+    /**
+     * Records the progress of a search term. The entry is queued for a background thread that appends
+     * it to the journal, so the harvest loop never waits for the disk.
+     *
+     * @param term The search term.
+     * @param cursor The number of results harvested so far.
+     * @param views The views counted so far.
+     */
+    public static void progress(String term, long cursor, long views) {
+        record(term, cursor, views, false);
+    }
+
+    /**
+     * Records that a search term is finished, so reruns skip it.
+     *
+     * @param term The search term.
+     * @param cursor The number of results harvested.
+     * @param views The views counted.
+     */
+    public static void finish(String term, long cursor, long views) {
+        record(term, cursor, views, true);
+    }
+
+    private static void record(String term, long cursor, long views, boolean finished) {
+        if (INSTANCE == null || term == null) {
+            return;
+        }
+        INSTANCE.states.merge(term, new State(cursor, views, finished), State::furthest);
+
+        // Formatted by hand: a JsonOutput per entry costs more than the rest of a harvest batch
+        INSTANCE.pending.add("{\"term\":" + quote(term) + ",\"cursor\":" + cursor + ",\"views\":" + views + ",\"finished\":" + finished + "}\n");
+    }
+
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * Opens the journal and replays it. Progress only moves forward, so the furthest entry of each term wins,
+     * whatever order the writer and the exit flush appended entries in. A line cut short by a crash is ignored.
+     */
+    private static CrawlCheckpoint open(String file) {
+        if (file == null || file.isBlank()) {
+            return null;
+        }
+        CrawlCheckpoint checkpoint = new CrawlCheckpoint(Paths.get(file));
+        try {
+            if (Files.exists(checkpoint.journal)) {
+                for (String line : Files.readAllLines(checkpoint.journal, StandardCharsets.UTF_8)) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        Map<String, Object> entry = JSON.toType(line, Json.MAP_TYPE);
+                        State state = new State(((Number) entry.get("cursor")).longValue(), ((Number) entry.get("views")).longValue(), Boolean.TRUE.equals(entry.get("finished")));
+                        checkpoint.states.merge((String) entry.get("term"), state, State::furthest);
+                    } catch (JsonException | ClassCastException | NullPointerException e) {
+                        YouTubeUtils.logStatus("open", "Skipping unreadable checkpoint: " + line);
+                    }
+                }
+
+                // Start on a new line if the last entry was cut short
+                byte[] content = Files.readAllBytes(checkpoint.journal);
+                if (content.length > 0 && content[content.length - 1] != '\n') {
+                    checkpoint.pending.add("\n");
+                }
+            } else if (checkpoint.journal.getParent() != null) {
+                Files.createDirectories(checkpoint.journal.getParent());
+            }
+        } catch (IOException e) {
+            YouTubeUtils.logStatus("open", "Exception\n\t\t\t" + e.getMessage());
+        }
+        YouTubeUtils.logStatus("open", String.format("Checkpoint journal %s: %s terms recorded", checkpoint.journal.toAbsolutePath(), checkpoint.states.size()));
+
+        checkpoint.writer.setDaemon(true);
+        checkpoint.writer.start();
+
+        // Write what is still queued when the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            List<String> rest = new ArrayList<>();
+            checkpoint.pending.drainTo(rest);
+            checkpoint.write(rest);
+        }, "checkpoint-flush"));
+        return checkpoint;
+    }
+
+    // Appends queued entries in batches, each forced to disk before the next batch is taken
+    private void drain() {
+        List<String> batch = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            pending.drainTo(batch);
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private synchronized void write(List<String> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(String.join("", lines).getBytes(StandardCharsets.UTF_8)));
+            channel.force(false);
+        } catch (IOException e) {
+            YouTubeUtils.logStatus("write", "Exception\n\t\t\t" + e.getMessage());
+        }
+    }
+
+    /**
+     * The last recorded progress of a search term.
+     */
+    private static class State {
+        private final long cursor;
+        private final long views;
+        private final boolean finished;
+
+        State(long cursor, long views, boolean finished) {
+            this.cursor = cursor;
+            this.views = views;
+            this.finished = finished;
+        }
+
+        static State furthest(State a, State b) {
+            if (a.finished != b.finished) {
+                return a.finished ? a : b;
+            }
+            return (b.cursor >= a.cursor) ? b : a;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package demo.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+public class DomExtractor {
+    // Resolves the item locator, then every field locator relative to each item, and returns their texts
+    private static final String EXTRACT_SCRIPT = String.join("\n",
+            "function find(root, using, value) {",
+            "  if (using === 'xpath') {",
+            "    var result = document.evaluate(value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);",
+            "    var nodes = [];",
+            "    for (var i = 0; i < result.snapshotLength; i++) { nodes.push(result.snapshotItem(i)); }",
+            "    return nodes;",
+            "  }",
+            "  return Array.prototype.slice.call(root.querySelectorAll(value));",
+            "}",
+            "var fields = arguments[2];",
+            "return find(document, arguments[0], arguments[1]).map(function (item) {",
+            "  var record = {};",
+            "  fields.forEach(function (field) {",
+            "    var node = find(item, field[1], field[2])[0];",
+            "    record[field[0]] = node ? node.innerText.trim() : null;",
+            "  });",
+            "  return record;",
+            "});");
+
+    /**
+     * Extracts several fields from every element matched by the item locator in a single WebDriver round trip.
+     * Field locators are evaluated relative to each item, as with WebElement.findElement.
+     *
+     * @param driver The WebDriver instance where the elements are located.
+     * @param itemLocator The By locator (XPath or CSS) used to identify the items to extract.
+     * @param fieldLocators The By locators of the fields to extract from each item, keyed by field name.
+     * @return One record per matched item, in document order, mapping each field name to its text,
+     *         or to null if the item has no such field.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Map<String, String>> extract(WebDriver driver, By itemLocator, Map<String, By> fieldLocators) {
+        // Describe each field as [name, using, value] for the script
+        List<List<Object>> fields = new ArrayList<>();
+        for (Map.Entry<String, By> field : fieldLocators.entrySet()) {
+            By.Remotable.Parameters parameters = parameters(field.getValue());
+            fields.add(Arrays.asList(field.getKey(), parameters.using(), parameters.value()));
+        }
+
+        By.Remotable.Parameters item = parameters(itemLocator);
+        Object result = ((JavascriptExecutor) driver).executeScript(EXTRACT_SCRIPT, item.using(), item.value(), fields);
+
+        // Convert the returned objects into records keeping the field order
+        List<Map<String, String>> records = new ArrayList<>();
+        if (result instanceof List) {
+            for (Object entry : (List<Object>) result) {
+                Map<String, Object> values = (Map<String, Object>) entry;
+                Map<String, String> record = new LinkedHashMap<>();
+                for (String name : fieldLocators.keySet()) {
+                    Object value = values.get(name);
+                    record.put(name, (value == null) ? null : value.toString());
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Returns the strategy and expression of a locator in the form the browser evaluates them.
+     *
+     * @param locator The By locator to describe.
+     * @return The remote parameters of the locator.
+     * @throws IllegalArgumentException If the locator is neither an XPath nor a CSS selector.
+     */
+    static By.Remotable.Parameters parameters(By locator) {
+        if (locator instanceof By.Remotable) {
+            By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+            if ("xpath".equals(parameters.using()) || "css selector".equals(parameters.using())) {
+                return parameters;
+            }
+        }
+        throw new IllegalArgumentException("Locator cannot be evaluated by script: " + locator);
+    }
+}
@@ -0,0 +1,121 @@
+package demo.utils;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.jsoup.Jsoup;
+import org.jsoup.helper.W3CDom;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+public class DomSnapshot {
+    private final Document document;
+
+    // W3C copies of the page and of the items XPath locators were evaluated from
+    private final Map<Element, org.w3c.dom.Document> w3cCopies = new IdentityHashMap<>();
+    private final XPath xpath = XPathFactory.newInstance().newXPath();
+
+    private DomSnapshot(Document document) {
+        this.document = document;
+    }
+
+    /**
+     * Captures the rendered DOM of the current page in a single WebDriver round trip, so any number
+     * of locators can then be evaluated in-process without further calls to the browser.
+     *
+     * @param driver The WebDriver instance whose page is captured.
+     * @return The snapshot of the page.
+     */
+    public static DomSnapshot capture(WebDriver driver) {
+        long start = System.nanoTime();
+        String html = (String) ((JavascriptExecutor) driver).executeScript("return document.documentElement.outerHTML;");
+        DomSnapshot snapshot = parse(html);
+        StepMetrics.record("captureSnapshot", "", start);
+        return snapshot;
+    }
+
+    /**
+     * Parses an HTML page into a snapshot.
+     *
+     * @param html The HTML of the page.
+     * @return The snapshot of the page.
+     */
+    public static DomSnapshot parse(String html) {
+        return new DomSnapshot(Jsoup.parse(html));
+    }
+
+    /**
+     * Extracts several fields from every element matched by the item locator, in the same shape as
+     * DomExtractor.extract. Field locators only see the subtree of their item. Texts are whitespace-normalized,
+     * and unlike innerText they include hidden elements.
+     *
+     * @param itemLocator The By locator (XPath or CSS) used to identify the items to extract.
+     * @param fieldLocators The By locators of the fields to extract from each item, keyed by field name.
+     * @return One record per matched item, in document order, mapping each field name to its text,
+     *         or to null if the item has no such field.
+     */
+    public List<Map<String, String>> extract(By itemLocator, Map<String, By> fieldLocators) {
+        long start = System.nanoTime();
+        List<Map<String, String>> records = new ArrayList<>();
+        for (Element item : find(document, itemLocator)) {
+            Map<String, String> record = new LinkedHashMap<>();
+            for (Map.Entry<String, By> field : fieldLocators.entrySet()) {
+                List<Element> nodes = find(item, field.getValue());
+                record.put(field.getKey(), nodes.isEmpty() ? null : nodes.get(0).text().trim());
+            }
+            records.add(record);
+        }
+        StepMetrics.record("snapshotExtract", itemLocator, start);
+        return records;
+    }
+
+    /**
+     * Returns the elements matched by the locator, relative to the given root, in document order.
+     *
+     * @param root The element to evaluate the locator from.
+     * @param locator The XPath or CSS locator to evaluate.
+     * @return The matched elements.
+     */
+    private List<Element> find(Element root, By locator) {
+        By.Remotable.Parameters parameters = DomExtractor.parameters(locator);
+        String expression = String.valueOf(parameters.value());
+        if ("css selector".equals(parameters.using())) {
+            return root.select(expression);
+        }
+
+        // XPath runs on W3C copies whose nodes point back to the snapshot elements. The JDK evaluator indexes
+        // the whole document of the context node on every call, so items get a copy of their own subtree.
+        org.w3c.dom.Document copy = w3cCopies.computeIfAbsent(root, this::w3cCopy);
+        List<Element> elements = new ArrayList<>();
+        try {
+            NodeList nodes = (NodeList) xpath.evaluate(expression, (root == document) ? copy : copy.getDocumentElement(), XPathConstants.NODESET);
+            for (int i = 0; i < nodes.getLength(); i++) {
+                Object source = nodes.item(i).getUserData(W3CDom.SourceProperty);
+                if (source instanceof Element) {
+                    elements.add((Element) source);
+                }
+            }
+        } catch (XPathExpressionException e) {
+            throw new IllegalArgumentException("Invalid XPath: " + expression, e);
+        }
+        return elements;
+    }
+
+    // Detached clones of items are converted on their own, and their text is the same as the original's
+    private org.w3c.dom.Document w3cCopy(Element root) {
+        return new W3CDom().namespaceAware(false).fromJsoup((root == document) ? document : root.clone());
+    }
+}
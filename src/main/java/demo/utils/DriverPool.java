@@ -0,0 +1,210 @@
+package demo.utils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.WebDriver;
+
+public class DriverPool {
+    // Driver leased by the current thread, shared with helpers that have no access to the pool
+    private static final ThreadLocal<WebDriver> LEASED = new ThreadLocal<>();
+
+    private final Supplier<WebDriver> factory;
+    private final SessionPolicy policy;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<WebDriver> idle = new LinkedBlockingDeque<>();
+    private final Set<WebDriver> sessions = ConcurrentHashMap.newKeySet();
+    private final Map<WebDriver, Integer> uses = new ConcurrentHashMap<>();
+    private final Thread shutdownHook = new Thread(this::shutdown, "driver-pool-shutdown");
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool that hands out at most the given number of WebDriver sessions at a time.
+     * Sessions are created lazily on the first lease that finds no idle session.
+     *
+     * @param maxSessions The maximum number of sessions that may be open at the same time.
+     * @param factory The supplier used to create a new WebDriver session.
+     */
+    public DriverPool(int maxSessions, Supplier<WebDriver> factory) {
+        this(maxSessions, factory, new SessionPolicy() {});
+    }
+
+    /**
+     * Creates a pool that hands out at most the given number of WebDriver sessions at a time,
+     * health-checking idle sessions before leasing them, resetting released sessions and retiring
+     * sessions after the number of uses given by the policy.
+     *
+     * @param maxSessions The maximum number of sessions that may be open at the same time.
+     * @param factory The supplier used to create a new WebDriver session.
+     * @param policy The policy used to check, reset and retire sessions.
+     */
+    public DriverPool(int maxSessions, Supplier<WebDriver> factory, SessionPolicy policy) {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1, got " + maxSessions);
+        }
+        this.factory = factory;
+        this.policy = policy;
+        this.permits = new Semaphore(maxSessions, true);
+
+        // Quit every open session if the JVM exits without the pool being shut down
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Leases a WebDriver session to the current thread, blocking until one is available.
+     * Calling this again from a thread that already holds a lease returns the same session.
+     *
+     * @return The WebDriver session bound to the current thread.
+     */
+    public WebDriver lease() {
+        WebDriver driver = LEASED.get();
+        if (driver != null) {
+            return driver;
+        }
+        if (closed) {
+            throw new IllegalStateException("Driver pool is shut down");
+        }
+
+        // Wait for a free slot so the number of open sessions stays bounded
+        permits.acquireUninterruptibly();
+        try {
+            driver = idle.pollFirst();
+
+            // Replace an idle session that stopped responding, e.g. after a browser crash
+            if (driver != null && !isHealthy(driver)) {
+                YouTubeUtils.logStatus("lease", "Retiring unresponsive driver session");
+                retire(driver);
+                driver = null;
+            }
+            if (driver == null) {
+                YouTubeUtils.logStatus("lease", "Creating driver session");
+                driver = factory.get();
+                sessions.add(driver);
+
+                // The pool may have been shut down while the session started, after quitting the others
+                if (closed) {
+                    quit(driver);
+                    throw new IllegalStateException("Driver pool is shut down");
+                }
+            }
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        LEASED.set(driver);
+        return driver;
+    }
+
+    /**
+     * Returns the WebDriver session leased by the current thread.
+     *
+     * @return The leased WebDriver session.
+     * @throws IllegalStateException If the current thread holds no lease.
+     */
+    public static WebDriver current() {
+        WebDriver driver = LEASED.get();
+        if (driver == null) {
+            throw new IllegalStateException("No driver leased by thread " + Thread.currentThread().getName());
+        }
+        return driver;
+    }
+
+    /**
+     * Returns the session leased by the current thread to the pool so another thread can use it.
+     * Does nothing if the current thread holds no lease.
+     */
+    public void release() {
+        WebDriver driver = LEASED.get();
+        if (driver == null) {
+            return;
+        }
+        LEASED.remove();
+        int count = uses.merge(driver, 1, Integer::sum);
+        if (closed) {
+            quit(driver);
+        } else if (count >= policy.maxUses()) {
+            // Recycle the session so the memory a long-lived browser accumulates stays bounded
+            YouTubeUtils.logStatus("release", "Recycling driver session after " + count + " uses");
+            retire(driver);
+        } else {
+            try {
+                policy.reset(driver);
+                idle.offerFirst(driver);
+            } catch (Exception e) {
+                YouTubeUtils.logStatus("release", "Exception\n\t\t\t" + e.getMessage());
+                retire(driver);
+            }
+        }
+        permits.release();
+    }
+
+    /**
+     * Quits the session leased by the current thread instead of returning it to the pool,
+     * for sessions that are no longer usable. A new session is created on the next lease.
+     */
+    public void discard() {
+        WebDriver driver = LEASED.get();
+        if (driver == null) {
+            return;
+        }
+        LEASED.remove();
+        retire(driver);
+        permits.release();
+    }
+
+    /**
+     * Quits every session created by this pool, including sessions still leased by other threads.
+     */
+    public void shutdown() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (WebDriver driver : sessions) {
+            quit(driver);
+        }
+        idle.clear();
+        LEASED.remove();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already running as the shutdown hook
+        }
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            return policy.isHealthy(driver);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void retire(WebDriver driver) {
+        if (!sessions.remove(driver)) {
+            return;
+        }
+        uses.remove(driver);
+        try {
+            policy.retire(driver);
+        } catch (Exception e) {
+            YouTubeUtils.logStatus("retire", "Exception\n\t\t\t" + e.getMessage());
+        }
+    }
+
+    private void quit(WebDriver driver) {
+        if (!sessions.remove(driver)) {
+            return;
+        }
+        uses.remove(driver);
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            YouTubeUtils.logStatus("quit", "Exception\n\t\t\t" + e.getMessage());
+        }
+    }
+}
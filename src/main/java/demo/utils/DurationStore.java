@@ -0,0 +1,112 @@
+package demo.utils;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToLongFunction;
+
+public class DurationStore {
+    /**
+     * Returns the key durations are recorded under: the test method, followed by its data row value if it has one.
+     * Keys use the value rather than the row number, so they stay valid when rows are added to the sheet.
+     *
+     * @param method The name of the test method.
+     * @param dataRow The data row value, or null if the test is not data driven.
+     * @return The key of the test or data row.
+     */
+    public static String key(String method, Object dataRow) {
+        return (dataRow == null) ? method : method + "[" + dataRow + "]";
+    }
+
+    /**
+     * Reads the recorded durations from the file given by the "yt.durations" system property,
+     * "durations.csv" in the working directory by default.
+     *
+     * @return The duration in milliseconds of every recorded test and data row, empty if none were recorded.
+     */
+    public static Map<String, Long> load() {
+        Map<String, Long> durations = new TreeMap<>();
+        Path file = file();
+        if (!Files.exists(file)) {
+            return durations;
+        }
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                // Lines are millis,key, so keys may contain commas
+                int comma = line.indexOf(',');
+                if (comma > 0 && Character.isDigit(line.charAt(0))) {
+                    durations.put(line.substring(comma + 1), Long.parseLong(line.substring(0, comma)));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            YouTubeUtils.logStatus("load", "Exception\n\t\t\t" + e.getMessage());
+        }
+        return durations;
+    }
+
+    /**
+     * Merges the durations measured by this run into the durations file. Each recorded duration moves halfway
+     * towards the new measurement, so one slow run does not overturn the schedule.
+     *
+     * @param measured The durations in milliseconds measured by this run, keyed as by key().
+     */
+    public static synchronized void update(Map<String, Long> measured) {
+        Map<String, Long> durations = load();
+        measured.forEach((key, millis) -> durations.merge(key, millis, (recorded, latest) -> (recorded + latest + 1) / 2));
+        try (PrintWriter writer = new PrintWriter(file().toFile(), StandardCharsets.UTF_8)) {
+            writer.println("millis,test");
+            durations.forEach((key, millis) -> writer.println(millis + "," + key));
+            YouTubeUtils.logStatus("update", "Test durations: " + file().toAbsolutePath());
+        } catch (IOException e) {
+            YouTubeUtils.logStatus("update", "Exception\n\t\t\t" + e.getMessage());
+        }
+    }
+
+    /**
+     * Splits items across shards so their total durations are as even as possible, using the longest processing
+     * time first rule: items are taken longest first and each goes to the shard with the least work so far.
+     * Every JVM computes the same assignment from the same durations, so shards need no coordination.
+     * The items of the given shard are returned longest first, so parallel workers pick them up in LPT order too.
+     *
+     * @param items The items to split, in a stable order used to break ties.
+     * @param duration The estimated duration of an item.
+     * @param shards The number of shards.
+     * @param shard The shard whose items to return, from 0 to shards - 1.
+     * @return The items of the shard, longest first.
+     */
+    public static <T> List<T> schedule(List<T> items, ToLongFunction<T> duration, int shards, int shard) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingLong(duration).reversed());
+
+        long[] load = new long[shards];
+        List<T> assigned = new ArrayList<>();
+        for (T item : sorted) {
+            int least = 0;
+            for (int s = 1; s < shards; s++) {
+                if (load[s] < load[least]) {
+                    least = s;
+                }
+            }
+            load[least] += duration.applyAsLong(item);
+            if (least == shard % shards) {
+                assigned.add(item);
+            }
+        }
+        YouTubeUtils.logStatus("schedule", String.format("Shard %s of %s has %s items, %s ms estimated (shards: %s ms)", shard, shards, assigned.size(), load[shard % shards], Arrays.toString(load)));
+        return Collections.unmodifiableList(assigned);
+    }
+
+    private static Path file() {
+        return Paths.get(System.getProperty("yt.durations", "durations.csv"));
+    }
+}
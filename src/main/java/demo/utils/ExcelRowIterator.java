@@ -0,0 +1,228 @@
+package demo.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+
+public class ExcelRowIterator implements Iterator<Object[]>, Closeable {
+    private final OPCPackage pkg;
+    private final SharedStringsFile sharedStrings;
+    private final InputStream sheetStream;
+    private final XMLStreamReader reader;
+    private final int columnIndex;
+    private Object[] next;
+    private boolean headerSkipped;
+    private boolean closed;
+
+    /**
+     * Opens a sheet of an Excel file for streaming, one row at a time, without loading the workbook.
+     * The sheet is pulled from the zip as it is read, and the shared strings table is copied to a temporary
+     * file (see SharedStringsFile), so the heap holds 8 bytes per distinct string instead of the strings.
+     *
+     * @param filePath The file path of the Excel file to read from.
+     * @param sheetName The name of the sheet within the Excel file to read data from.
+     * @param columnIndex The index of the column from which to extract data.
+     * @throws Exception If the file cannot be opened or the sheet is not found.
+     */
+    public ExcelRowIterator(String filePath, String sheetName, int columnIndex) throws Exception {
+        this.columnIndex = columnIndex;
+        this.pkg = OPCPackage.open(filePath, PackageAccess.READ);
+        try {
+            XSSFReader xssfReader = new XSSFReader(pkg);
+
+            // Find the sheet stream by name
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            InputStream stream = null;
+            while (sheets.hasNext()) {
+                InputStream candidate = sheets.next();
+                if (sheets.getSheetName().equals(sheetName)) {
+                    stream = candidate;
+                    break;
+                }
+                candidate.close();
+            }
+
+            // Throw an exception if the specified sheet is not found
+            if (stream == null) {
+                throw new IllegalArgumentException("Sheet '" + sheetName + "' not found!");
+            }
+            this.sheetStream = stream;
+            this.reader = XMLHelper.newXMLInputFactory().createXMLStreamReader(stream);
+            this.sharedStrings = openSharedStrings();
+        } catch (Exception e) {
+            pkg.revert();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !closed) {
+            next = readRow();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Object[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object[] row = next;
+        next = null;
+        return row;
+    }
+
+    /**
+     * Releases the underlying file. Called automatically once the last row has been read.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            reader.close();
+            sheetStream.close();
+        } catch (XMLStreamException | IOException e) {
+            YouTubeUtils.logStatus("close", "Exception\n\t\t\t" + e.getMessage());
+        } finally {
+            sharedStrings.close();
+            pkg.revert();
+        }
+    }
+
+    /**
+     * Copies the shared strings table to a temporary file, closing the sheet stream if that fails.
+     *
+     * @return The table of shared strings.
+     */
+    private SharedStringsFile openSharedStrings() throws Exception {
+        try {
+            return new SharedStringsFile(pkg);
+        } catch (IOException e) {
+            reader.close();
+            sheetStream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Pulls XML events up to the end of the next row, skipping the header row like the DOM reader does.
+     *
+     * @return The next record holding the value of the column, or null once the sheet is exhausted.
+     */
+    private Object[] readRow() {
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "row".equals(reader.getLocalName())) {
+                    Object[] row = new Object[]{readCells()};
+                    if (headerSkipped) {
+                        return row;
+                    }
+                    headerSkipped = true;
+                }
+            }
+        } catch (XMLStreamException e) {
+            YouTubeUtils.logStatus("readRow", "Exception\n\t\t\t" + e.getMessage());
+        }
+        close();
+        return null;
+    }
+
+    /**
+     * Reads the cells of the current row and returns the value of the cell at the column index.
+     *
+     * @return The value of the cell as an Object, or null if the row has no such cell.
+     */
+    private Object readCells() throws XMLStreamException {
+        Object value = null;
+        int column = -1;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(reader.getLocalName())) {
+                return value;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(reader.getLocalName())) {
+                // Cells may omit their reference, in which case they follow the previous one
+                String reference = reader.getAttributeValue(null, "r");
+                column = (reference != null) ? new CellReference(reference).getCol() : column + 1;
+                if (column == columnIndex) {
+                    value = readCell(reader.getAttributeValue(null, "t"));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Reads the current cell element and converts its content the same way ExcelUtils does for DOM cells.
+     *
+     * @param type The value of the cell's "t" attribute.
+     * @return The value of the cell as an Object, or null for formula, error and empty cells.
+     */
+    private Object readCell(String type) throws XMLStreamException {
+        String text = null;
+        boolean formula = false;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "c".equals(reader.getLocalName())) {
+                break;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                if ("f".equals(name)) {
+                    formula = true;
+                } else if ("v".equals(name) || "t".equals(name)) {
+                    text = reader.getElementText();
+                }
+            }
+        }
+
+        // Determine the cell type and return the appropriate value
+        if (formula || text == null) {
+            return null;
+        }
+        if (type == null || "n".equals(type)) {
+            return Double.parseDouble(text);
+        }
+        switch (type) {
+            case "s":
+                return readSharedString(Integer.parseInt(text));
+            case "inlineStr":
+                return text;
+            case "b":
+                return "1".equals(text);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Looks a shared string cell up in the table copied to the temporary file.
+     *
+     * @param index The value of the cell.
+     * @return The string, or null if it cannot be read.
+     */
+    private Object readSharedString(int index) {
+        try {
+            return sharedStrings.getItemAt(index);
+        } catch (IOException e) {
+            YouTubeUtils.logStatus("readSharedString", "Exception\n\t\t\t" + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package demo.utils;
 
 import java.io.FileInputStream;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import org.apache.poi.ss.usermodel.Cell;
@@ -63,6 +65,56 @@ public class ExcelUtils {
         }
     }
 
+    /**
+     * Streams data from an Excel file one row at a time, without loading the workbook into memory.
+     * Rows are parsed lazily as the iterator advances, so heap use does not grow with the sheet size.
+     *
+     * @param filePath The file path of the Excel file to read from.
+     * @param sheetName The name of the sheet within the Excel file to read data from.
+     * @param columnIndex The index of the column from which to extract data.
+     * @return An iterator of arrays of objects, each containing data from a single cell,
+     *         or an empty iterator if the file cannot be read.
+     */
+    public static Iterator<Object[]> streamDataFromExcel(String filePath, String sheetName, int columnIndex) {
+        try {
+            YouTubeUtils.logStatus("streamDataFromExcel", "Streaming data from excel file");
+            return new ExcelRowIterator(filePath, sheetName, columnIndex);
+        } catch (Exception e) {
+            YouTubeUtils.logStatus("streamDataFromExcel", "Exception\n\t\t\t" + e.getMessage());
+            return Collections.emptyIterator();
+        }
+    }
+
+    /**
+     * Writes a row of values to an Excel sheet, the counterpart of getCellValue: strings, numbers and
+     * booleans are written as cells of that type, anything else as its text, and nulls as blank cells.
+     *
+     * @param sheet The sheet to write the row to.
+     * @param rowIndex The 0-based index of the row; row 0 holds the column headers, as in the sheets read here.
+     * @param values The values of the cells, starting from the first column.
+     * @return The row that was written.
+     */
+    public static Row writeRow(Sheet sheet, int rowIndex, Object... values) {
+        Row row = sheet.createRow(rowIndex);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+
+            // Create the cell with the type matching the value
+            Cell cell = row.createCell(i);
+            if (value instanceof Number) {
+                cell.setCellValue(((Number) value).doubleValue());
+            } else if (value instanceof Boolean) {
+                cell.setCellValue((Boolean) value);
+            } else {
+                cell.setCellValue(String.valueOf(value));
+            }
+        }
+        return row;
+    }
+
     /**
      * Retrieves the value of a cell in an Excel sheet.
      *
@@ -0,0 +1,162 @@
+package demo.utils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+/**
+ * Captures a screenshot, the page source and the browser console of a failure, and writes them zipped to
+ * "screenshots/failures" on a small pool of background workers. The failing thread only fetches the raw bytes;
+ * when the workers fall behind and their queue is full, further evidence is dropped rather than waited for.
+ */
+public class FailureEvidence {
+    // "failures" (the default) captures failed tests, "steps" also steps that swallowed an exception, "off" nothing
+    private static final String MODE = System.getProperty("yt.evidence", "failures");
+
+    private static final File DIRECTORY = new File(System.getProperty("yt.evidence.dir", "screenshots" + File.separator + "failures"));
+
+    private static final AtomicLong DROPPED = new AtomicLong();
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private static final ThreadPoolExecutor WORKERS = workers(Integer.getInteger("yt.evidence.workers", 2), Integer.getInteger("yt.evidence.queue", 16));
+
+    /**
+     * Captures the evidence of a failed test, unless evidence is turned off with -Dyt.evidence=off.
+     *
+     * @param driver The WebDriver session the test ran in.
+     * @param name The name of the failure, used in the file name together with the data row of the current thread.
+     */
+    public static void testFailed(WebDriver driver, String name) {
+        if (!"off".equals(MODE)) {
+            capture(driver, name);
+        }
+    }
+
+    /**
+     * Captures the evidence of a step that logged and swallowed an exception, if -Dyt.evidence=steps.
+     *
+     * @param driver The WebDriver session the step ran in.
+     * @param step The name of the step.
+     */
+    public static void stepFailed(WebDriver driver, String step) {
+        if ("steps".equals(MODE)) {
+            capture(driver, ThreadContext.get("testId") + "-" + step);
+        }
+    }
+
+    /**
+     * Waits for the evidence queued so far to be written.
+     */
+    public static void awaitWritten() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while ((WORKERS.getActiveCount() > 0 || !WORKERS.getQueue().isEmpty()) && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (DROPPED.get() > 0) {
+            YouTubeUtils.logStatus("awaitWritten", "Evidence dropped while the writers were busy: " + DROPPED.get());
+        }
+    }
+
+    private static void capture(WebDriver driver, String name) {
+        if (driver == null) {
+            return;
+        }
+        long start = System.nanoTime();
+
+        // Fetch the raw bytes on this thread, as the session is released once the test ends
+        byte[] screenshot = null;
+        String pageSource = null;
+        StringBuilder console = new StringBuilder();
+        try {
+            screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+        } catch (Exception e) {
+            YouTubeUtils.logStatus("capture", "Exception\n\t\t\t" + e.getMessage());
+        }
+        try {
+            pageSource = driver.getPageSource();
+        } catch (Exception e) {
+            YouTubeUtils.logStatus("capture", "Exception\n\t\t\t" + e.getMessage());
+        }
+        try {
+            // Only collected when the session was started with goog:loggingPrefs (see BrowserProfile)
+            for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+                console.append(entry).append('\n');
+            }
+        } catch (Exception e) {
+            console.append("Console log not available: ").append(e.getMessage()).append('\n');
+        }
+        StepMetrics.record("captureEvidence", "", start);
+
+        String dataRow = ThreadContext.get("dataRow");
+        String fileName = String.format("%s-%s%s-%s.zip", YouTubeUtils.getDateTime("yyyyMMddHHmmss"), name, (dataRow == null) ? "" : "-row" + dataRow, SEQUENCE.incrementAndGet())
+                .replaceAll("[^\\w.-]", "_");
+        byte[] png = screenshot;
+        String html = pageSource;
+        WORKERS.execute(() -> write(new File(DIRECTORY, fileName), png, html, console.toString()));
+    }
+
+    private static void write(File file, byte[] screenshot, String pageSource, String console) {
+        file.getParentFile().mkdirs();
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(file))) {
+            if (screenshot != null) {
+                // PNG is compressed already, so it is stored as is
+                ZipEntry entry = new ZipEntry("screenshot.png");
+                CRC32 crc = new CRC32();
+                crc.update(screenshot);
+                entry.setMethod(ZipEntry.STORED);
+                entry.setSize(screenshot.length);
+                entry.setCrc(crc.getValue());
+                zip.putNextEntry(entry);
+                zip.write(screenshot);
+                zip.closeEntry();
+            }
+            if (pageSource != null) {
+                zip.putNextEntry(new ZipEntry("page.html"));
+                zip.write(pageSource.getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+            zip.putNextEntry(new ZipEntry("console.log"));
+            zip.write(console.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+            YouTubeUtils.logStatus("write", "Failure evidence: " + file.getAbsolutePath());
+        } catch (IOException e) {
+            YouTubeUtils.logStatus("write", "Exception\n\t\t\t" + e.getMessage());
+        }
+    }
+
+    // Daemon workers behind a bounded queue; evidence arriving while the queue is full is counted and dropped
+    private static ThreadPoolExecutor workers(int threads, int queueSize) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queueSize), task -> {
+            Thread thread = new Thread(task, "evidence-writer-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, (task, executor) -> {
+            DROPPED.incrementAndGet();
+            YouTubeUtils.logStatus("capture", "Evidence writers busy, dropping evidence");
+        });
+        workers.allowCoreThreadTimeOut(true);
+        return workers;
+    }
+}
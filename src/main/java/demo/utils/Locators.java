@@ -0,0 +1,133 @@
+package demo.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openqa.selenium.By;
+
+/**
+ * Every locator of the test cases, defined once. CSS selectors are used wherever they match exactly
+ * what the XPath did ("contains(@attr, 'x')" is "[attr*='x']"); XPath is kept for matching text,
+ * walking up to ancestors and picking by position, which CSS cannot express.
+ * Parameterized locators are cached by their parameters, so each is only built once per parameter value.
+ */
+public class Locators {
+    // Parameterized locators built so far, keyed by their parameters
+    private static final Map<String, By> GUIDE_TABS = new ConcurrentHashMap<>();
+    private static final Map<String, By> SHELF_NEXT_BUTTONS = new ConcurrentHashMap<>();
+    private static final Map<String, By> SHELF_LAST_MOVIES = new ConcurrentHashMap<>();
+    private static final Map<Integer, By> LATEST_NEWS_POSTS = new ConcurrentHashMap<>();
+
+    // Home page
+    public static final By ABOUT_LINK = By.xpath("//a[contains(text(), 'About')]");
+    public static final By ABOUT_MESSAGE = By.cssSelector("section[class*='about__content']");
+    public static final By SEARCH_BOX = By.cssSelector("input[id*='search']");
+
+    // Fields of a movie, relative to the movie
+    public static final By MOVIE_CERTIFICATION = By.xpath(".//p[not(contains(text(), 'Buy') or contains(text(), 'Rent'))]");
+    public static final By MOVIE_GENRE = By.cssSelector("span[class*='metadata']");
+
+    // Music page and the fields of a playlist, relative to the playlist
+    public static final By FIRST_SECTION = By.xpath("(//ytd-item-section-renderer)[1]");
+    public static final By FIRST_SECTION_NEXT_BUTTON = By.xpath("(//ytd-item-section-renderer)[1]//button[contains(@aria-label, 'Next')]");
+    public static final By FIRST_SECTION_LAST_PLAYLIST = By.xpath("((//ytd-item-section-renderer)[1]//ytd-compact-station-renderer)[last()]");
+    public static final By PLAYLIST_NAME = By.cssSelector("h3");
+    public static final By PLAYLIST_TRACK_COUNT = By.cssSelector("p[id*='video-count']");
+
+    // News page and the fields of a news post, relative to the post
+    public static final By LATEST_NEWS_HEADING = By.xpath("//span[contains(text(), 'Latest news post')]");
+    public static final By POST_LIKES = By.cssSelector("span[id*='vote-count-middle']");
+    public static final By POST_BODY = By.cssSelector("div[id*='body']");
+
+    /**
+     * Locates a guide or sidebar tab by its title, matching any of the given titles,
+     * e.g. guideTab("Films", "Movies") for a tab named differently across regions.
+     *
+     * @param titles The titles the tab may have.
+     * @return The locator of the tab.
+     */
+    public static By guideTab(String... titles) {
+        return GUIDE_TABS.computeIfAbsent(String.join("\n", titles), key -> {
+            StringBuilder selector = new StringBuilder();
+            for (String title : titles) {
+                selector.append((selector.length() == 0) ? "" : ", ").append("a[title*=").append(cssString(title)).append("]");
+            }
+            return By.cssSelector(selector.toString());
+        });
+    }
+
+    /**
+     * Locates the "Next" button of the shelf whose heading contains the given text.
+     *
+     * @param section The text of the shelf heading, e.g. "Top selling".
+     * @return The locator of the button.
+     */
+    public static By shelfNextButton(String section) {
+        return SHELF_NEXT_BUTTONS.computeIfAbsent(section, key -> By.xpath("//span[contains(text(), " + xpathString(key) + ")]/ancestor::div[contains(@class, 'item-section')]//button[contains(@aria-label, 'Next')]"));
+    }
+
+    /**
+     * Locates the last movie of the shelf whose heading contains the given text.
+     *
+     * @param section The text of the shelf heading, e.g. "Top selling".
+     * @return The locator of the movie.
+     */
+    public static By shelfLastMovie(String section) {
+        return SHELF_LAST_MOVIES.computeIfAbsent(section, key -> By.xpath("(//span[contains(text(), " + xpathString(key) + ")]/ancestor::div[contains(@class, 'item-section')]//ytd-grid-movie-renderer)[last()]"));
+    }
+
+    /**
+     * Locates the first news posts of the "Latest news posts" section.
+     *
+     * @param count The number of posts to locate.
+     * @return The locator of the posts.
+     */
+    public static By latestNewsPosts(int count) {
+        return LATEST_NEWS_POSTS.computeIfAbsent(count, key -> By.xpath("(//span[contains(text(), 'Latest news post')]/ancestor::ytd-rich-section-renderer//ytd-post-renderer)[position() <= " + key + "]"));
+    }
+
+    /**
+     * Returns every locator of the registry, with the parameters the test cases use, keyed by name.
+     *
+     * @return The locators in the order they are defined.
+     */
+    public static Map<String, By> all() {
+        Map<String, By> locators = new LinkedHashMap<>();
+        locators.put("ABOUT_LINK", ABOUT_LINK);
+        locators.put("ABOUT_MESSAGE", ABOUT_MESSAGE);
+        locators.put("SEARCH_BOX", SEARCH_BOX);
+        locators.put("guideTab(Films, Movies)", guideTab("Films", "Movies"));
+        locators.put("guideTab(Music)", guideTab("Music"));
+        locators.put("guideTab(News)", guideTab("News"));
+        locators.put("shelfNextButton(Top selling)", shelfNextButton("Top selling"));
+        locators.put("shelfLastMovie(Top selling)", shelfLastMovie("Top selling"));
+        locators.put("MOVIE_CERTIFICATION", MOVIE_CERTIFICATION);
+        locators.put("MOVIE_GENRE", MOVIE_GENRE);
+        locators.put("FIRST_SECTION", FIRST_SECTION);
+        locators.put("FIRST_SECTION_NEXT_BUTTON", FIRST_SECTION_NEXT_BUTTON);
+        locators.put("FIRST_SECTION_LAST_PLAYLIST", FIRST_SECTION_LAST_PLAYLIST);
+        locators.put("PLAYLIST_NAME", PLAYLIST_NAME);
+        locators.put("PLAYLIST_TRACK_COUNT", PLAYLIST_TRACK_COUNT);
+        locators.put("LATEST_NEWS_HEADING", LATEST_NEWS_HEADING);
+        locators.put("latestNewsPosts(3)", latestNewsPosts(3));
+        locators.put("POST_LIKES", POST_LIKES);
+        locators.put("POST_BODY", POST_BODY);
+        return locators;
+    }
+
+    // Quotes a parameter as an XPath string, using concat() if it contains both kinds of quotes
+    private static String xpathString(String value) {
+        if (!value.contains("'")) {
+            return "'" + value + "'";
+        }
+        if (!value.contains("\"")) {
+            return "\"" + value + "\"";
+        }
+        return "concat('" + value.replace("'", "', \"'\", '") + "')";
+    }
+
+    private static String cssString(String value) {
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+}
@@ -0,0 +1,263 @@
+package demo.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+
+/**
+ * Records what the page spent during each wrapper call, to tell network, scripting and layout cost apart:
+ * JS heap, DOM nodes, layout and style recalculation counts and durations, script and task durations from
+ * DevTools Performance.getMetrics, and bytes transferred from Navigation and Resource Timing.
+ * Off by default, as sampling costs two round trips before and after every step; enable with -Dyt.pageMetrics=true.
+ * Each step call is written to a temporary CSV file as it is recorded, and only per-step totals are kept in memory,
+ * so long runs do not grow the heap.
+ */
+public class PageMetrics {
+    private static final boolean ENABLED = Boolean.getBoolean("yt.pageMetrics");
+
+    // Bytes transferred for the document and its resources so far, and when the document started loading. The resource
+    // timing buffer holds 250 entries by default, which a YouTube page fills before its first step, so it is enlarged
+    // on the first sample
+    private static final String TIMING_SCRIPT = String.join("\n",
+            "if (!window.__ytTimingBuffer) { performance.setResourceTimingBufferSize(100000); window.__ytTimingBuffer = true; }",
+            "var entries = performance.getEntriesByType('navigation').concat(performance.getEntriesByType('resource'));",
+            "var bytes = 0;",
+            "for (var i = 0; i < entries.length; i++) { bytes += entries[i].transferSize || 0; }",
+            "return {origin: performance.timeOrigin, transferred: bytes, resources: entries.length,",
+            "  heap: performance.memory ? performance.memory.usedJSHeapSize : -1,",
+            "  nodes: document.getElementsByTagName('*').length};");
+
+    // Columns identifying a step call, the others hold its metrics
+    private static final List<String> TAGS = List.of("test", "dataRow", "step", "target");
+
+    // Guarded by the class: the file step calls are written to until export, and the totals of each step
+    private static File rowsFile;
+    private static PrintWriter rows;
+    private static final Map<String, Totals> TOTALS = new TreeMap<>();
+
+    /**
+     * Samples the page before a step.
+     *
+     * @param driver The WebDriver instance the step runs in.
+     * @return The sample, or null if page metrics are disabled or cannot be read.
+     */
+    public static Sample sample(WebDriver driver) {
+        if (!ENABLED || driver == null) {
+            return null;
+        }
+        try {
+            return new Sample(performanceMetrics(driver), timing(driver));
+        } catch (Exception e) {
+            YouTubeUtils.logStatus("sample", "Exception\n\t\t\t" + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Samples the page after a step and records the change since the sample taken before it.
+     *
+     * @param step The name of the wrapper method.
+     * @param locator The locator the step acted on, or null if it has none.
+     * @param driver The WebDriver instance the step ran in.
+     * @param before The sample taken before the step, or null to record nothing.
+     */
+    public static void record(String step, By locator, WebDriver driver, Sample before) {
+        if (before == null) {
+            return;
+        }
+        Sample after = sample(driver);
+        if (after == null) {
+            return;
+        }
+
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("test", ThreadContext.get("testId"));
+        row.put("dataRow", ThreadContext.get("dataRow"));
+        row.put("step", step);
+        row.put("target", (locator == null) ? "" : locator.toString());
+        row.put("jsHeapBytes", after.metrics.containsKey("JSHeapUsedSize") ? after.metrics.get("JSHeapUsedSize").longValue() : after.timing.get("heap").longValue());
+        row.put("domNodes", after.metrics.containsKey("Nodes") ? after.metrics.get("Nodes").longValue() : after.timing.get("nodes").longValue());
+        row.put("layoutCount", count(before, after, "LayoutCount"));
+        row.put("recalcStyleCount", count(before, after, "RecalcStyleCount"));
+        row.put("layoutMs", millis(before, after, "LayoutDuration"));
+        row.put("recalcStyleMs", millis(before, after, "RecalcStyleDuration"));
+        row.put("scriptMs", millis(before, after, "ScriptDuration"));
+        row.put("taskMs", millis(before, after, "TaskDuration"));
+        row.put("transferredBytes", (long) change(before, after, before.timing.get("transferred"), after.timing.get("transferred")));
+        row.put("resources", (long) change(before, after, before.timing.get("resources"), after.timing.get("resources")));
+        add(row);
+    }
+
+    // Appends a step call to the rows file and adds it to the totals of its step
+    private static synchronized void add(Map<String, Object> row) {
+        try {
+            if (rows == null) {
+                rowsFile = File.createTempFile("page-metrics", ".csv");
+                rowsFile.deleteOnExit();
+                rows = new PrintWriter(rowsFile, StandardCharsets.UTF_8);
+                rows.println(String.join(",", row.keySet()));
+            }
+            rows.println(StepMetrics.csvLine(row.values()));
+        } catch (IOException e) {
+            YouTubeUtils.logStatus("record", "Exception\n\t\t\t" + e.getMessage());
+        }
+        TOTALS.computeIfAbsent((String) row.get("step"), step -> new Totals()).add(row);
+    }
+
+    /**
+     * Writes the page metrics of every step call to "page-metrics.csv" in the given directory, and the average
+     * of each metric per step to "page-metrics-summary.csv", then starts over for the calls recorded afterwards.
+     * Nothing is written if page metrics are disabled.
+     *
+     * @param directory The directory to write the reports to.
+     */
+    public static synchronized void export(File directory) {
+        if (!ENABLED) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory.toPath());
+            if (rows != null) {
+                rows.close();
+                rows = null;
+                Files.move(rowsFile.toPath(), new File(directory, "page-metrics.csv").toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            // Average every numeric column per step
+            List<Map<String, Object>> averages = new ArrayList<>();
+            for (Map.Entry<String, Totals> entry : TOTALS.entrySet()) {
+                averages.add(entry.getValue().averages(entry.getKey()));
+            }
+            StepMetrics.writeCsv(new File(directory, "page-metrics-summary.csv"), averages);
+        } catch (IOException e) {
+            YouTubeUtils.logStatus("export", "Exception\n\t\t\t" + e.getMessage());
+        }
+        TOTALS.clear();
+    }
+
+    /**
+     * Removes every recorded sample.
+     */
+    public static synchronized void reset() {
+        if (rows != null) {
+            rows.close();
+            rows = null;
+            rowsFile.delete();
+        }
+        TOTALS.clear();
+    }
+
+    // Change of a Performance.getMetrics counter during a step, or null without DevTools
+    private static Long count(Sample before, Sample after, String metric) {
+        return after.metrics.containsKey(metric) ? (long) change(before, after, before.metrics.get(metric), after.metrics.get(metric)) : null;
+    }
+
+    // Change of a Performance.getMetrics duration during a step, converted from seconds to ms, or null without DevTools
+    private static Double millis(Sample before, Sample after, String metric) {
+        return after.metrics.containsKey(metric) ? Math.round(change(before, after, before.metrics.get(metric), after.metrics.get(metric)) * 100_000) / 100.0 : null;
+    }
+
+    // Change of a cumulative value during a step. The counters restart when the step loads a new document,
+    // so the step is charged the new document's totals, also when they are larger than the old document's
+    private static double change(Sample before, Sample after, Number from, Number to) {
+        if (from == null || to == null) {
+            return 0;
+        }
+        if (!Objects.equals(before.timing.get("origin"), after.timing.get("origin"))) {
+            return to.doubleValue();
+        }
+        double change = to.doubleValue() - from.doubleValue();
+        return (change < 0) ? to.doubleValue() : change;
+    }
+
+    // Performance.getMetrics of the current tab, enabling the domain the first time a tab is sampled
+    @SuppressWarnings("unchecked")
+    private static Map<String, Number> performanceMetrics(WebDriver driver) {
+        Map<String, Number> metrics = new HashMap<>();
+        if (!(driver instanceof HasCdp)) {
+            return metrics;
+        }
+        HasCdp cdp = (HasCdp) driver;
+        List<Object> values;
+        try {
+            values = (List<Object>) cdp.executeCdpCommand("Performance.getMetrics", Map.of()).get("metrics");
+        } catch (RuntimeException e) {
+            values = null;
+        }
+        if (values == null || values.isEmpty()) {
+            cdp.executeCdpCommand("Performance.enable", Map.of());
+            values = (List<Object>) cdp.executeCdpCommand("Performance.getMetrics", Map.of()).get("metrics");
+        }
+        for (Object value : values) {
+            Map<String, Object> metric = (Map<String, Object>) value;
+            metrics.put((String) metric.get("name"), (Number) metric.get("value"));
+        }
+        return metrics;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Number> timing(WebDriver driver) {
+        return (Map<String, Number>) ((JavascriptExecutor) driver).executeScript(TIMING_SCRIPT);
+    }
+
+    /**
+     * The sum and count of every numeric column of the calls of one step.
+     */
+    private static class Totals {
+        private int calls;
+        private final Map<String, double[]> sums = new LinkedHashMap<>();
+
+        void add(Map<String, Object> row) {
+            calls++;
+            for (Map.Entry<String, Object> column : row.entrySet()) {
+                if (TAGS.contains(column.getKey())) {
+                    continue;
+                }
+                double[] sum = sums.computeIfAbsent(column.getKey(), key -> new double[2]);
+                if (column.getValue() instanceof Number) {
+                    sum[0] += ((Number) column.getValue()).doubleValue();
+                    sum[1]++;
+                }
+            }
+        }
+
+        Map<String, Object> averages(String step) {
+            Map<String, Object> average = new LinkedHashMap<>();
+            average.put("step", step);
+            average.put("calls", calls);
+            sums.forEach((column, sum) -> average.put("avg_" + column, (sum[1] == 0) ? null : BigDecimal.valueOf(sum[0] / sum[1]).setScale(2, RoundingMode.HALF_UP)));
+            return average;
+        }
+    }
+
+    /**
+     * The cumulative page metrics at one point of a test.
+     */
+    public static class Sample {
+        private final Map<String, Number> metrics;
+        private final Map<String, Number> timing;
+
+        Sample(Map<String, Number> metrics, Map<String, Number> timing) {
+            this.metrics = metrics;
+            this.timing = timing;
+        }
+    }
+}
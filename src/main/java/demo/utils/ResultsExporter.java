@@ -0,0 +1,195 @@
+package demo.utils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Streams the records the tests extract into an .xlsx workbook as they are produced. Rows are written
+ * with POI's windowed SXSSF writer, so memory stays constant however many records a run produces,
+ * by a background thread, so recording never blocks the browser thread. Records are queued up to
+ * -Dyt.export.queue (10000); records arriving while the queue is full are dropped and counted, so memory
+ * stays bounded even when the writer falls behind. A sheet reaching Excel's row limit continues in a new
+ * sheet ("Videos 2", ...), and a record that cannot be written is logged and skipped.
+ */
+public class ResultsExporter {
+    // Sheets of the playlists of TestCase003, the news posts of TestCase004 and the videos of TestCase005
+    public static final String PLAYLISTS = "Playlists";
+    public static final String POSTS = "Posts";
+    public static final String VIDEOS = "Videos";
+
+    // Columns of every sheet, after the test, data row and time columns common to all of them
+    private static final Map<String, List<String>> COLUMNS = Map.of(
+            PLAYLISTS, List.of("Name", "Tracks"),
+            POSTS, List.of("Likes", "Body"),
+            VIDEOS, List.of("Search term", "Video ID", "Title", "Views text", "Views"));
+
+    // Rows kept in memory per sheet; older rows are flushed to a temporary file
+    private static final int WINDOW = 100;
+
+    // Queued by close() after the last record
+    private static final Object[] END = new Object[0];
+
+    // Excel's limits on rows per sheet and characters per cell
+    private static final int LAST_ROW = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+    private static final int MAX_TEXT = SpreadsheetVersion.EXCEL2007.getMaxTextLength();
+
+    private static volatile ResultsExporter current;
+
+    private final File file;
+    private final BlockingQueue<Object[]> pending;
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread writer = new Thread(this::drain, "results-writer");
+
+    // Used by the writer thread only
+    private final Map<String, Sheet> sheets = new HashMap<>();
+    private final Map<String, Integer> parts = new HashMap<>();
+    private long written;
+    private long skipped;
+
+    private ResultsExporter(File file, int queueSize) {
+        this.file = file;
+        this.pending = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    /**
+     * Starts exporting records to the workbook given by the "yt.export" system property,
+     * "build/reports/results/results.xlsx" by default, or "off" to export nothing.
+     */
+    public static synchronized void open() {
+        close();
+        String file = System.getProperty("yt.export", "build/reports/results/results.xlsx");
+        if (file.isBlank() || "off".equalsIgnoreCase(file)) {
+            return;
+        }
+        ResultsExporter exporter = new ResultsExporter(new File(file), Math.max(1, Integer.getInteger("yt.export.queue", 10_000)));
+        exporter.writer.setDaemon(true);
+        exporter.writer.start();
+        current = exporter;
+    }
+
+    /**
+     * Queues a record for the workbook, tagged with the test and data row of the current thread.
+     * The record is written by a background thread, so the caller never waits for the workbook;
+     * if the writer has fallen behind and the queue is full, the record is dropped.
+     *
+     * @param sheet The sheet to add the record to, one of PLAYLISTS, POSTS and VIDEOS.
+     * @param values The values of the record, in the order of the sheet's columns.
+     */
+    public static void record(String sheet, Object... values) {
+        ResultsExporter exporter = current;
+        if (exporter == null) {
+            return;
+        }
+        Object[] record = new Object[values.length + 4];
+        record[0] = sheet;
+        record[1] = ThreadContext.get("testId");
+        record[2] = ThreadContext.get("dataRow");
+        record[3] = YouTubeUtils.getDateTime("yyyy-MM-dd HH:mm:ss");
+        System.arraycopy(values, 0, record, 4, values.length);
+        if (!exporter.pending.offer(record)) {
+            exporter.dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Writes the records queued so far and saves the workbook. Records made afterwards are not exported.
+     */
+    public static synchronized void close() {
+        ResultsExporter exporter = current;
+        if (exporter == null) {
+            return;
+        }
+        current = null;
+        try {
+            // Wait for room rather than drop the end marker, as long as the writer is still draining
+            while (exporter.writer.isAlive() && !exporter.pending.offer(END, 1, TimeUnit.SECONDS)) {
+                YouTubeUtils.logStatus("close", "Waiting for the results writer, records queued: " + exporter.pending.size());
+            }
+            exporter.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Appends queued records to their sheets until close() is called, then saves the workbook
+    private void drain() {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(WINDOW)) {
+            workbook.setCompressTempFiles(true);
+            while (true) {
+                Object[] record = pending.take();
+                if (record == END) {
+                    break;
+                }
+                try {
+                    write(workbook, record);
+                } catch (RuntimeException e) {
+                    // Skip the record but keep the workbook and the records after it
+                    skipped++;
+                    YouTubeUtils.logStatus("write", "Exception\n\t\t\t" + e.getMessage());
+                }
+            }
+
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            try (OutputStream out = new FileOutputStream(file)) {
+                workbook.write(out);
+            }
+            workbook.dispose();
+            YouTubeUtils.logStatus("close", String.format("Exported %s records to %s (%s skipped, %s dropped while the writer was busy)",
+                    written, file.getAbsolutePath(), skipped, dropped.get()));
+        } catch (IOException | RuntimeException e) {
+            YouTubeUtils.logStatus("close", "Exception\n\t\t\t" + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(SXSSFWorkbook workbook, Object[] record) {
+        String name = (String) record[0];
+        Sheet sheet = sheets.get(name);
+        if (sheet == null || sheet.getLastRowNum() >= LAST_ROW) {
+            // Start the sheet, or continue a full one in the next part
+            int part = parts.merge(name, 1, Integer::sum);
+            sheet = createSheet(workbook, (part == 1) ? name : name + " " + part, COLUMNS.getOrDefault(name, List.of()));
+            sheets.put(name, sheet);
+        }
+
+        Object[] values = new Object[record.length - 1];
+        System.arraycopy(record, 1, values, 0, values.length);
+        for (int i = 0; i < values.length; i++) {
+            // Cut texts to what a cell holds, e.g. long post bodies
+            if (values[i] instanceof String && ((String) values[i]).length() > MAX_TEXT) {
+                values[i] = ((String) values[i]).substring(0, MAX_TEXT);
+            }
+        }
+        ExcelUtils.writeRow(sheet, sheet.getLastRowNum() + 1, values);
+        written++;
+    }
+
+    private static Sheet createSheet(SXSSFWorkbook workbook, String name, List<String> columns) {
+        // Headers go in the first row, as ExcelUtils expects when reading the sheet back
+        Sheet sheet = workbook.createSheet(name);
+        Object[] headers = new Object[3 + columns.size()];
+        headers[0] = "Test";
+        headers[1] = "Row";
+        headers[2] = "Time";
+        System.arraycopy(columns.toArray(), 0, headers, 3, columns.size());
+        ExcelUtils.writeRow(sheet, 0, headers);
+        return sheet;
+    }
+}
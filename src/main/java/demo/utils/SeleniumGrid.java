@@ -0,0 +1,81 @@
+package demo.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+public class SeleniumGrid {
+    /**
+     * Returns the Selenium Grid given by the "yt.grid.url" system property, e.g. http://localhost:4444.
+     *
+     * @return The URL of the grid, or null if the suite runs on local browsers.
+     * @throws IllegalArgumentException If the property is not a valid URL.
+     */
+    public static URL url() {
+        String url = System.getProperty("yt.grid.url");
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        try {
+            return new URL(url);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("Invalid yt.grid.url: " + url, e);
+        }
+    }
+
+    /**
+     * Opens a session on the grid, which starts it on a node with a free slot. The session is augmented
+     * with the DevTools interfaces the grid exposes, so request blocking and the traffic archive work as locally.
+     *
+     * @param grid The URL of the grid.
+     * @param capabilities The capabilities of the browser to start.
+     * @return The remote WebDriver session.
+     */
+    public static WebDriver newDriver(URL grid, Capabilities capabilities) {
+        return new Augmenter().augment(new RemoteWebDriver(grid, capabilities));
+    }
+
+    /**
+     * Counts the session slots of the grid nodes that are up, so the suite can run one worker per slot.
+     *
+     * @param grid The URL of the grid.
+     * @return The number of slots, or 0 if the grid status cannot be read.
+     */
+    @SuppressWarnings("unchecked")
+    public static int slots(URL grid) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(grid.toString().replaceAll("/+$", "") + "/status").openConnection();
+            connection.setConnectTimeout(5_000);
+            connection.setReadTimeout(5_000);
+            String body;
+            try (InputStream in = connection.getInputStream()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            Map<String, Object> status = new Json().toType(body, Json.MAP_TYPE);
+            Map<String, Object> value = (Map<String, Object>) status.get("value");
+            int slots = 0;
+            for (Object node : (List<Object>) value.getOrDefault("nodes", List.of())) {
+                Map<String, Object> nodeStatus = (Map<String, Object>) node;
+                if ("UP".equals(nodeStatus.get("availability"))) {
+                    slots += ((List<Object>) nodeStatus.getOrDefault("slots", List.of())).size();
+                }
+            }
+            return slots;
+        } catch (IOException | RuntimeException e) {
+            YouTubeUtils.logStatus("slots", "Exception\n\t\t\t" + e.getMessage());
+            return 0;
+        }
+    }
+}
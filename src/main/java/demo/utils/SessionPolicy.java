@@ -0,0 +1,51 @@
+package demo.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * How a DriverPool checks, resets and retires the sessions it hands out. The defaults keep a session
+ * for the whole run without touching it between tests, replacing it only when the browser stops responding.
+ */
+public interface SessionPolicy {
+    /**
+     * Checks that an idle session still responds before it is leased again. By default, asks the browser
+     * for its windows, which fails once the browser has crashed or the session is gone.
+     *
+     * @param driver The idle WebDriver session.
+     * @return True if the session can be leased, false to retire it and create a new one.
+     */
+    default boolean isHealthy(WebDriver driver) {
+        try {
+            return !driver.getWindowHandles().isEmpty();
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Clears the state a test left in a session before it goes back to the idle sessions.
+     *
+     * @param driver The released WebDriver session.
+     */
+    default void reset(WebDriver driver) {
+    }
+
+    /**
+     * Returns how many leases a session serves before it is retired, bounding the memory a browser accumulates.
+     *
+     * @return The maximum number of leases per session.
+     */
+    default int maxUses() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Ends a session that is unhealthy, used up or discarded.
+     *
+     * @param driver The WebDriver session to end.
+     */
+    default void retire(WebDriver driver) {
+        driver.quit();
+    }
+}
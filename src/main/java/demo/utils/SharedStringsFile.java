@@ -0,0 +1,139 @@
+package demo.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+
+public class SharedStringsFile implements Closeable {
+    private final File file;
+    private final RandomAccessFile data;
+
+    // Position of each string in the file, the only per-string data kept in the heap (8 bytes per string)
+    private long[] offsets = new long[1024];
+    private int count;
+
+    /**
+     * Copies the shared strings table of a workbook to a temporary file, so that looking a string up
+     * reads it from disk instead of holding every string of the workbook in the heap, as POI's
+     * ReadOnlySharedStringsTable does. Like that table, phonetic runs are left out of the strings.
+     *
+     * @param pkg The opened workbook package.
+     * @throws IOException If the table cannot be read or the temporary file cannot be written.
+     */
+    public SharedStringsFile(OPCPackage pkg) throws IOException {
+        this.file = File.createTempFile("sharedStrings-", ".bin");
+        file.deleteOnExit();
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+                List<PackagePart> parts = pkg.getPartsByContentType(XSSFRelation.SHARED_STRINGS.getContentType());
+                if (!parts.isEmpty()) {
+                    try (InputStream stream = parts.get(0).getInputStream()) {
+                        copy(XMLHelper.newXMLInputFactory().createXMLStreamReader(stream), out);
+                    }
+                }
+            }
+            this.data = new RandomAccessFile(file, "r");
+        } catch (IOException | XMLStreamException e) {
+            file.delete();
+            throw (e instanceof IOException) ? (IOException) e : new IOException(e);
+        }
+    }
+
+    /**
+     * Reads a string of the table from the temporary file.
+     *
+     * @param index The index of the string, as given by the value of a shared string cell.
+     * @return The string.
+     * @throws IOException If the file cannot be read.
+     */
+    public String getItemAt(int index) throws IOException {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Shared string " + index + " of " + count);
+        }
+        data.seek(offsets[index]);
+        byte[] bytes = new byte[data.readInt()];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the number of strings in the table.
+     *
+     * @return The number of strings.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Closes and deletes the temporary file.
+     */
+    @Override
+    public void close() {
+        try {
+            data.close();
+        } catch (IOException e) {
+            YouTubeUtils.logStatus("close", "Exception\n\t\t\t" + e.getMessage());
+        } finally {
+            file.delete();
+        }
+    }
+
+    /**
+     * Writes each string item of the table as its UTF-8 length and bytes, recording where it starts.
+     *
+     * @param reader The reader positioned at the start of the shared strings part.
+     * @param out The stream of the temporary file.
+     */
+    private void copy(XMLStreamReader reader, DataOutputStream out) throws XMLStreamException, IOException {
+        long position = 0;
+        StringBuilder text = new StringBuilder();
+        boolean phonetic = false;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                if ("si".equals(name)) {
+                    text.setLength(0);
+                } else if ("rPh".equals(name)) {
+                    phonetic = true;
+                } else if ("t".equals(name) && !phonetic) {
+                    // Rich text items hold one text element per run
+                    text.append(reader.getElementText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = reader.getLocalName();
+                if ("rPh".equals(name)) {
+                    phonetic = false;
+                } else if ("si".equals(name)) {
+                    byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                    if (count == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                    }
+                    offsets[count++] = position;
+                    position += 4 + bytes.length;
+                }
+            }
+        }
+        reader.close();
+    }
+}
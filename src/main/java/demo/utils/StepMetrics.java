@@ -0,0 +1,182 @@
+package demo.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.logging.log4j.ThreadContext;
+import org.openqa.selenium.By;
+import org.openqa.selenium.json.Json;
+
+public class StepMetrics {
+    // Two significant digits keep each histogram at a few kilobytes while staying within 1% of the true value
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private static final Map<Key, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+
+    /**
+     * Records the time a wrapper call took, tagged with the step, the locator and the test of the current thread
+     * (see YouTubeUtils.setTestContext). Rows of a data driven test share their histograms, so memory does not grow
+     * with the rows; the duration of each row is in DataRowReporter's data-rows.csv.
+     *
+     * @param step The name of the wrapper method.
+     * @param locator The locator the step acted on, or null if it has none.
+     * @param startNanos The value of System.nanoTime() when the step started.
+     */
+    public static void record(String step, By locator, long startNanos) {
+        record(step, (locator == null) ? "" : locator.toString(), startNanos);
+    }
+
+    /**
+     * Records the time a step took, tagged with the step, the target and the test of the current thread.
+     *
+     * @param step The name of the step.
+     * @param target The locator or URL the step acted on, or an empty string if it has none.
+     * @param startNanos The value of System.nanoTime() when the step started.
+     */
+    public static void record(String step, String target, long startNanos) {
+        long micros = Math.max(0, (System.nanoTime() - startNanos) / 1_000);
+        Key key = new Key(ThreadContext.get("testId"), step, target);
+        HISTOGRAMS.computeIfAbsent(key, k -> new ConcurrentHistogram(SIGNIFICANT_DIGITS)).recordValue(micros);
+    }
+
+    /**
+     * Writes the latency percentiles of every step to the given directory:
+     * "step-latency.csv" and "step-latency.json" with one line per step across all tests,
+     * and "step-latency-detail.csv" with one line per test, step and locator.
+     *
+     * @param directory The directory to write the reports to.
+     */
+    public static void export(File directory) {
+        try {
+            Files.createDirectories(directory.toPath());
+
+            // Merge the histograms of each step across tests and locators
+            Map<String, Histogram> perStep = new TreeMap<>();
+            for (Map.Entry<Key, Histogram> entry : HISTOGRAMS.entrySet()) {
+                perStep.computeIfAbsent(entry.getKey().step, step -> new Histogram(SIGNIFICANT_DIGITS)).add(entry.getValue());
+            }
+
+            List<Map<String, Object>> steps = new ArrayList<>();
+            for (Map.Entry<String, Histogram> entry : perStep.entrySet()) {
+                steps.add(summary(entry.getKey(), entry.getValue()));
+            }
+            writeCsv(new File(directory, "step-latency.csv"), steps);
+            Files.write(new File(directory, "step-latency.json").toPath(), new Json().toJson(steps).getBytes(StandardCharsets.UTF_8));
+
+            // Keep the detail lines in a stable order so reports of different runs can be compared
+            List<Map.Entry<Key, Histogram>> entries = new ArrayList<>(HISTOGRAMS.entrySet());
+            entries.sort(Comparator.comparing((Map.Entry<Key, Histogram> entry) -> entry.getKey().toString()));
+            List<Map<String, Object>> details = new ArrayList<>();
+            for (Map.Entry<Key, Histogram> entry : entries) {
+                Key key = entry.getKey();
+                Map<String, Object> detail = new LinkedHashMap<>();
+                detail.put("test", key.test);
+                detail.put("step", key.step);
+                detail.put("locator", key.target);
+                detail.putAll(summary(key.step, entry.getValue()));
+                details.add(detail);
+            }
+            writeCsv(new File(directory, "step-latency-detail.csv"), details);
+
+            YouTubeUtils.logStatus("export", "Step latency reports: " + directory.getAbsolutePath());
+        } catch (IOException e) {
+            YouTubeUtils.logStatus("export", "Exception\n\t\t\t" + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes every recorded latency.
+     */
+    public static void reset() {
+        HISTOGRAMS.clear();
+    }
+
+    private static Map<String, Object> summary(String step, Histogram histogram) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("step", step);
+        summary.put("count", histogram.getTotalCount());
+        summary.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+        summary.put("p95Ms", millis(histogram.getValueAtPercentile(95)));
+        summary.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+        summary.put("maxMs", millis(histogram.getMaxValue()));
+        return summary;
+    }
+
+    private static double millis(long micros) {
+        return Math.round(micros / 10.0) / 100.0;
+    }
+
+    // Writes rows of the same columns as CSV, quoting text; shared with the page metrics report
+    static void writeCsv(File file, List<Map<String, Object>> rows) throws IOException {
+        try (PrintWriter writer = new PrintWriter(file, StandardCharsets.UTF_8)) {
+            if (rows.isEmpty()) {
+                return;
+            }
+            writer.println(String.join(",", rows.get(0).keySet()));
+            for (Map<String, Object> row : rows) {
+                writer.println(csvLine(row.values()));
+            }
+        }
+    }
+
+    // Formats values as one CSV line, quoting text; shared with the page metrics report
+    static String csvLine(Collection<Object> row) {
+        List<String> values = new ArrayList<>();
+        for (Object value : row) {
+            if (value instanceof String) {
+                values.add("\"" + ((String) value).replace("\"", "\"\"") + "\"");
+            } else {
+                values.add((value == null) ? "" : value.toString());
+            }
+        }
+        return String.join(",", values);
+    }
+
+    /**
+     * The tags a latency is recorded under.
+     */
+    private static class Key {
+        private final String test;
+        private final String step;
+        private final String target;
+
+        Key(String test, String step, String target) {
+            this.test = test;
+            this.step = step;
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return Objects.equals(test, key.test) && step.equals(key.step) && target.equals(key.target);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(test, step, target);
+        }
+
+        @Override
+        public String toString() {
+            return test + "|" + step + "|" + target;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package demo.utils;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Hides page load latency by loading the page the next test starts from in a background tab of the same
+ * browser while the current test runs. With -Dyt.tabs=n, each session keeps up to n - 1 such tabs ready;
+ * a test starting on a prefetched page switches to its tab and closes the previous test's tab.
+ * Prefetching is off by default, and with -Dyt.replay and -Dyt.warm: traffic interception is bound to the
+ * first tab of a session, and warm sessions close their extra tabs after every test.
+ */
+public class TabPrefetcher {
+    private static final int TABS = Integer.getInteger("yt.tabs", 1);
+
+    // Tabs loading a page in the background, per session, oldest first; sessions are used by one thread at a time
+    private static final Map<WebDriver, Deque<Tab>> PREFETCHED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Opens a page in the session, switching to a tab that prefetched it if there is one, and starts
+     * prefetching the page again for the next test.
+     *
+     * @param driver The WebDriver session leased by the current test.
+     * @param url The page to open.
+     */
+    public static void open(WebDriver driver, String url) {
+        if (!isEnabled()) {
+            driver.get(url);
+            return;
+        }
+        Deque<Tab> tabs = PREFETCHED.computeIfAbsent(driver, d -> new ArrayDeque<>());
+
+        // Forget tabs that were closed, e.g. by a test or a crashed renderer
+        Set<String> handles = driver.getWindowHandles();
+        tabs.removeIf(tab -> !handles.contains(tab.handle));
+
+        Tab ready = take(tabs, url);
+        if (ready != null) {
+            // Close the previous test's tab and continue in the prefetched one, waiting only for what is left of its load
+            try {
+                driver.close();
+            } catch (NoSuchWindowException e) {
+                // The previous test closed its tab itself
+            }
+            driver.switchTo().window(ready.handle);
+            BrowserProfile.apply(driver);
+            YouTubeUtils.logStatus("open", "Switched to prefetched tab: " + url);
+        } else {
+            driver.get(url);
+        }
+
+        // Start loading the next tests' pages, without waiting for them
+        while (tabs.size() < TABS - 1) {
+            Set<String> before = driver.getWindowHandles();
+            ((JavascriptExecutor) driver).executeScript("window.open(arguments[0], '_blank', 'noopener');", url);
+            Set<String> opened = new HashSet<>(driver.getWindowHandles());
+            opened.removeAll(before);
+            if (opened.isEmpty()) {
+                YouTubeUtils.logStatus("open", "The browser did not open a tab to prefetch " + url);
+                break;
+            }
+            tabs.addLast(new Tab(opened.iterator().next(), url));
+        }
+    }
+
+    private static boolean isEnabled() {
+        return TABS > 1 && "off".equals(System.getProperty("yt.replay", "off")) && !Boolean.getBoolean("yt.warm");
+    }
+
+    // Removes and returns the oldest tab prefetching the URL, the one most likely to have finished loading
+    private static Tab take(Deque<Tab> tabs, String url) {
+        for (Iterator<Tab> iterator = tabs.iterator(); iterator.hasNext(); ) {
+            Tab tab = iterator.next();
+            if (tab.url.equals(url)) {
+                iterator.remove();
+                return tab;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * A background tab and the page it was opened with.
+     */
+    private static class Tab {
+        private final String handle;
+        private final String url;
+
+        Tab(String handle, String url) {
+            this.handle = handle;
+            this.url = url;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package demo.utils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpHandler;
+import org.openqa.selenium.remote.http.HttpRequest;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+public class TrafficArchive {
+    // Headers describing the encoding on the wire; the archive stores decoded bodies
+    private static final Set<String> DROPPED_HEADERS = Set.of("content-encoding", "content-length", "transfer-encoding");
+
+    private static final Json JSON = new Json();
+    private static volatile TrafficArchive instance;
+
+    private final Path directory;
+    private final Path index;
+
+    // Responses by exact key (method, URL and request body), and in recorded order by method and URL
+    private final Map<String, Map<String, Object>> byKey = new ConcurrentHashMap<>();
+    private final Map<String, List<Map<String, Object>>> byUrl = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> replayed = new ConcurrentHashMap<>();
+    private final AtomicInteger recorded = new AtomicInteger();
+
+    /**
+     * Opens the archive in the given directory, loading its index if one exists.
+     *
+     * @param directory The directory holding "index.jsonl" and the response bodies.
+     */
+    public TrafficArchive(Path directory) {
+        this.directory = directory;
+        this.index = directory.resolve("index.jsonl");
+        try {
+            Files.createDirectories(directory.resolve("bodies"));
+            if (Files.exists(index)) {
+                for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+                    if (!line.isBlank()) {
+                        add(JSON.toType(line, Json.MAP_TYPE));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Hooks the traffic archive into a new browser session, depending on the "yt.replay" system property:
+     * "record" captures every page and XHR response the session receives into the archive, and "replay"
+     * answers every request from the archive instead of the network, so the suite runs offline with
+     * repeatable timings. Requests missing from the archive get a 404 in replay mode.
+     * The archive directory is given by "yt.replay.dir", "replay" by default.
+     *
+     * @param driver The new WebDriver session, which must support DevTools (e.g. ChromeDriver).
+     * @return The same WebDriver session.
+     */
+    public static WebDriver attach(WebDriver driver) {
+        String mode = System.getProperty("yt.replay", "off");
+        if ("off".equals(mode)) {
+            return driver;
+        }
+        TrafficArchive archive = instance();
+        switch (mode) {
+            case "record":
+                YouTubeUtils.logStatus("attach", "Recording traffic to " + archive.directory.toAbsolutePath());
+                new NetworkInterceptor(driver, (Filter) next -> request -> archive.record(request, next));
+                break;
+            case "replay":
+                YouTubeUtils.logStatus("attach", "Replaying traffic from " + archive.directory.toAbsolutePath());
+                new NetworkInterceptor(driver, (HttpHandler) archive::replay);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown yt.replay mode: " + mode);
+        }
+        return driver;
+    }
+
+    private static TrafficArchive instance() {
+        if (instance == null) {
+            synchronized (TrafficArchive.class) {
+                if (instance == null) {
+                    instance = new TrafficArchive(Paths.get(System.getProperty("yt.replay.dir", "replay")));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Sends the request to the network and stores the response before handing it to the browser.
+     *
+     * @param request The request made by the browser.
+     * @param next The handler that sends the request to the network.
+     * @return The response from the network.
+     */
+    public HttpResponse record(HttpRequest request, HttpHandler next) {
+        byte[] requestBody = Contents.bytes(request.getContent());
+        request.setContent(Contents.bytes(requestBody));
+
+        HttpResponse response = next.execute(request);
+        byte[] body = Contents.bytes(response.getContent());
+        response.setContent(Contents.bytes(body));
+
+        try {
+            String key = key(request, requestBody);
+            String bodyFile = "bodies/" + digest(key) + "-" + recorded.incrementAndGet() + ".bin";
+            Files.write(directory.resolve(bodyFile), body);
+
+            Map<String, String> headers = new LinkedHashMap<>();
+            response.forEachHeader((name, value) -> {
+                if (!DROPPED_HEADERS.contains(name.toLowerCase())) {
+                    headers.putIfAbsent(name, value);
+                }
+            });
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("key", key);
+            entry.put("url", urlKey(request));
+            entry.put("status", response.getStatus());
+            entry.put("headers", headers);
+            entry.put("body", bodyFile);
+            append(entry);
+            add(entry);
+        } catch (IOException e) {
+            YouTubeUtils.logStatus("record", "Exception\n\t\t\t" + e.getMessage());
+        }
+        return response;
+    }
+
+    /**
+     * Answers a request from the archive. A request matching a recorded one exactly gets its response;
+     * otherwise the responses recorded for the same method and URL are served in their recorded order,
+     * since request bodies of XHRs carry values that change between runs.
+     *
+     * @param request The request made by the browser.
+     * @return The archived response, or a 404 response if the URL was never recorded.
+     */
+    @SuppressWarnings("unchecked")
+    public HttpResponse replay(HttpRequest request) {
+        byte[] requestBody = Contents.bytes(request.getContent());
+        Map<String, Object> entry = byKey.get(key(request, requestBody));
+        if (entry == null) {
+            List<Map<String, Object>> entries = byUrl.get(urlKey(request));
+            if (entries == null) {
+                YouTubeUtils.logStatus("replay", "Not in archive: " + urlKey(request));
+                return new HttpResponse().setStatus(404);
+            }
+            int next = replayed.computeIfAbsent(urlKey(request), url -> new AtomicInteger()).getAndIncrement();
+            entry = entries.get(next % entries.size());
+        }
+
+        HttpResponse response = new HttpResponse().setStatus(((Number) entry.get("status")).intValue());
+        ((Map<String, Object>) entry.get("headers")).forEach((name, value) -> response.setHeader(name, String.valueOf(value)));
+        try {
+            response.setContent(Contents.bytes(Files.readAllBytes(directory.resolve((String) entry.get("body")))));
+        } catch (IOException e) {
+            YouTubeUtils.logStatus("replay", "Exception\n\t\t\t" + e.getMessage());
+            return new HttpResponse().setStatus(404);
+        }
+        return response;
+    }
+
+    private void add(Map<String, Object> entry) {
+        byKey.putIfAbsent((String) entry.get("key"), entry);
+        byUrl.computeIfAbsent((String) entry.get("url"), url -> new ArrayList<>());
+        List<Map<String, Object>> entries = byUrl.get((String) entry.get("url"));
+        synchronized (entries) {
+            entries.add(entry);
+        }
+    }
+
+    // One JSON object per line, so a crash mid-recording loses at most the last line
+    private synchronized void append(Map<String, Object> entry) throws IOException {
+        StringWriter line = new StringWriter();
+        try (JsonOutput output = JSON.newOutput(line)) {
+            output.setPrettyPrint(false).write(entry);
+        }
+        line.write(System.lineSeparator());
+        Files.write(index, line.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private static String urlKey(HttpRequest request) {
+        return request.getMethod() + " " + request.getUri();
+    }
+
+    private static String key(HttpRequest request, byte[] requestBody) {
+        return urlKey(request) + " " + digest(requestBody);
+    }
+
+    private static String digest(String text) {
+        return digest(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String digest(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package demo.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+public class VideoHarvester {
+    // Marks results as harvested. When pruning, they are taken out of the page instead: results that follow each
+    // other are replaced by one empty spacer covering them, and a result right after a spacer grows that spacer.
+    // YouTube loads each page of results into a section of its own, so the page keeps one spacer per loaded page
+    // instead of every result's subtree. Every position is read first, so the page is laid out once and keeps its
+    // scroll position. On the first call of a harvester, marks and spacers left by an earlier search in the same
+    // tab are cleared
+    private static final String MARK_FUNCTIONS = String.join("\n",
+            "function clearStale() {",
+            "  var stale = document.querySelectorAll('[data-harvested]');",
+            "  for (var s = 0; s < stale.length; s++) {",
+            "    if (stale[s].dataset.pruned) { stale[s].remove(); } else { delete stale[s].dataset.harvested; }",
+            "  }",
+            "}",
+            "function mark(nodes, prune) {",
+            "  if (!prune) {",
+            "    for (var k = 0; k < nodes.length; k++) { nodes[k].dataset.harvested = 'true'; }",
+            "    return;",
+            "  }",
+            "  var runs = [];",
+            "  for (var k = 0; k < nodes.length; k++) {",
+            "    var run = runs.length ? runs[runs.length - 1] : null, previous = nodes[k].previousElementSibling;",
+            "    if (run && previous === run.nodes[run.nodes.length - 1]) {",
+            "      run.nodes.push(nodes[k]);",
+            "    } else {",
+            "      runs.push({nodes: [nodes[k]], spacer: (previous && previous.dataset.pruned) ? previous : null});",
+            "    }",
+            "  }",
+            "  for (var r = 0; r < runs.length; r++) {",
+            "    var first = runs[r].spacer || runs[r].nodes[0], last = runs[r].nodes[runs[r].nodes.length - 1];",
+            "    runs[r].top = first.getBoundingClientRect().top;",
+            "    runs[r].bottom = last.getBoundingClientRect().bottom;",
+            "    runs[r].marginTop = getComputedStyle(first).marginTop;",
+            "    runs[r].marginBottom = getComputedStyle(last).marginBottom;",
+            "  }",
+            "  for (var r = 0; r < runs.length; r++) {",
+            "    var spacer = runs[r].spacer;",
+            "    if (!spacer) {",
+            "      spacer = document.createElement('div');",
+            "      spacer.dataset.harvested = 'true';",
+            "      spacer.dataset.pruned = 'true';",
+            "      runs[r].nodes[0].before(spacer);",
+            "    }",
+            "    spacer.style.cssText = 'display: block; height: ' + (runs[r].bottom - runs[r].top) + 'px; margin: ' + runs[r].marginTop + ' 0 ' + runs[r].marginBottom + ' 0';",
+            "    for (var k = 0; k < runs[r].nodes.length; k++) { runs[r].nodes[k].remove(); }",
+            "  }",
+            "}");
+
+    // Returns the results not harvested yet and marks them; when there are none, scrolls to the bottom to
+    // trigger the next infinite-scroll load and polls until new results arrive or the timeout expires
+    private static final String HARVEST_SCRIPT = String.join("\n",
+            "var fresh = arguments[0], timeoutMs = arguments[1], prune = arguments[2], done = arguments[arguments.length - 1];",
+            "var started = Date.now();",
+            MARK_FUNCTIONS,
+            "function harvest() {",
+            "  var nodes = document.querySelectorAll('ytd-video-renderer:not([data-harvested])');",
+            "  if (nodes.length > 0) {",
+            "    var batch = [];",
+            "    for (var i = 0; i < nodes.length; i++) {",
+            "      var views = null;",
+            "      var spans = nodes[i].querySelectorAll('#metadata-line span');",
+            "      for (var j = 0; j < spans.length; j++) {",
+            "        if (spans[j].textContent.indexOf('view') >= 0) { views = spans[j].textContent.trim(); break; }",
+            "      }",
+            "      var title = nodes[i].querySelector('#video-title');",
+            "      var href = title ? title.getAttribute('href') : null;",
+            "      var match = href ? href.match(/[?&]v=([\\w-]{11})|\\/shorts\\/([\\w-]{11})/) : null;",
+            "      batch.push({id: match ? (match[1] || match[2]) : null, title: title ? title.textContent.trim() : '', views: views});",
+            "    }",
+            "    mark(nodes, prune);",
+            "    done({batch: batch, heap: memory()});",
+            "  } else if (Date.now() - started > timeoutMs) {",
+            "    done({batch: [], heap: memory()});",
+            "  } else {",
+            "    window.scrollTo(0, document.documentElement.scrollHeight);",
+            "    setTimeout(harvest, 100);",
+            "  }",
+            "}",
+            "function memory() {",
+            "  return window.performance && performance.memory ? performance.memory.usedJSHeapSize : -1;",
+            "}",
+            "if (fresh) { clearStale(); }",
+            "harvest();");
+
+    // Marks up to the given number of results as harvested without reading them, scrolling to load more, until
+    // that many are marked, no new results load within the timeout, or the call has run for 20 seconds
+    // (within the default script timeout), and returns how many it marked
+    private static final String SKIP_SCRIPT = String.join("\n",
+            "var remaining = arguments[0], timeoutMs = arguments[1], prune = arguments[2], fresh = arguments[3], done = arguments[arguments.length - 1];",
+            "var started = Date.now(), lastChange = started, skipped = 0;",
+            MARK_FUNCTIONS,
+            "function load() {",
+            "  var nodes = Array.prototype.slice.call(document.querySelectorAll('ytd-video-renderer:not([data-harvested])'), 0, remaining - skipped);",
+            "  if (nodes.length > 0) {",
+            "    mark(nodes, prune);",
+            "    skipped += nodes.length;",
+            "    lastChange = Date.now();",
+            "  }",
+            "  if (skipped >= remaining || Date.now() - lastChange > timeoutMs || Date.now() - started > 20000) {",
+            "    done(skipped);",
+            "  } else {",
+            "    window.scrollTo(0, document.documentElement.scrollHeight);",
+            "    setTimeout(load, 100);",
+            "  }",
+            "}",
+            "if (fresh) { clearStale(); }",
+            "load();");
+
+    private final WebDriver driver;
+    private final long timeoutMillis;
+    private final boolean prune;
+    private boolean fresh = true;
+    private int cursor;
+    private long heapBytes = -1;
+
+    /**
+     * Creates a harvester for the search results page currently open in the WebDriver.
+     *
+     * @param driver The WebDriver instance where the search results are located.
+     * @param timeoutMillis How long a batch waits for new results to load before the feed is considered exhausted.
+     */
+    public VideoHarvester(WebDriver driver, long timeoutMillis) {
+        this(driver, timeoutMillis, false);
+    }
+
+    /**
+     * Creates a harvester for the search results page currently open in the WebDriver, optionally taking
+     * every result out of the page once it is harvested, leaving one spacer per run of results that follow each other.
+     *
+     * @param driver The WebDriver instance where the search results are located.
+     * @param timeoutMillis How long a batch waits for new results to load before the feed is considered exhausted.
+     * @param prune True to replace harvested results by empty spacers covering the same space.
+     */
+    public VideoHarvester(WebDriver driver, long timeoutMillis, boolean prune) {
+        this.driver = driver;
+        this.timeoutMillis = timeoutMillis;
+        this.prune = prune;
+    }
+
+    /**
+     * Collects every video rendered since the previous batch in a single WebDriver round trip,
+     * loading the next page of results first if all rendered videos have been harvested.
+     *
+     * @return The video ID (null if the link has none), title and views text of each new video, in feed order, or an empty list once no more results load.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, String>> nextBatch() {
+        Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(HARVEST_SCRIPT, fresh, timeoutMillis, prune);
+        fresh = false;
+        heapBytes = ((Number) result.get("heap")).longValue();
+
+        List<Map<String, String>> batch = new ArrayList<>();
+        for (Object video : (List<Object>) result.get("batch")) {
+            batch.add((Map<String, String>) video);
+        }
+        cursor += batch.size();
+        return batch;
+    }
+
+    /**
+     * Moves the cursor past results harvested by an earlier run, loading them without reading them,
+     * so the next batch continues where that run stopped.
+     *
+     * @param resumeCursor The number of results harvested by the earlier run.
+     * @return The new cursor, lower than requested if the feed has fewer results now.
+     */
+    public int skipTo(int resumeCursor) {
+        // Each call skips as many results as load in 20 seconds; keep going while results still load
+        int skipped;
+        do {
+            skipped = ((Number) ((JavascriptExecutor) driver).executeAsyncScript(SKIP_SCRIPT, resumeCursor - cursor, timeoutMillis, prune, fresh)).intValue();
+            fresh = false;
+            cursor += skipped;
+        } while (cursor < resumeCursor && skipped > 0);
+        return cursor;
+    }
+
+    /**
+     * Returns the JavaScript heap used by the page after the last batch.
+     *
+     * @return The heap size in bytes, or -1 if the browser does not report it.
+     */
+    public long getHeapBytes() {
+        return heapBytes;
+    }
+
+    /**
+     * Returns the number of results harvested so far.
+     *
+     * @return The position of the cursor in the result list.
+     */
+    public int getCursor() {
+        return cursor;
+    }
+}
@@ -0,0 +1,204 @@
+package demo.utils;
+
+public class VideoIdSet {
+    private static final double MAX_LOAD = 0.75;
+
+    // Shared by every search when -Dyt.dedupe=run
+    private static VideoIdSet run;
+
+    // Open-addressing table of packed IDs, 0 marking a free slot; the ID packed to 0 is tracked apart
+    private long[] table;
+    private boolean hasZero;
+
+    // Bloom filter bits and hashes per ID, used instead of the table when sized with -Dyt.dedupe.bloom
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashes;
+
+    private long size;
+
+    private VideoIdSet(long expectedIds, double falsePositiveRate) {
+        if (expectedIds > 0) {
+            double optimalBits = Math.ceil(-expectedIds * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            bitCount = (long) Math.min(Math.max(64, optimalBits), 1L << 32);
+            bits = new long[(int) ((bitCount + 63) >>> 6)];
+            hashes = Math.max(1, (int) Math.round((double) bitCount / expectedIds * Math.log(2)));
+        } else {
+            bitCount = 0;
+            bits = null;
+            hashes = 0;
+            table = new long[1024];
+        }
+    }
+
+    /**
+     * Returns the set a search should de-duplicate its results with, as chosen by the "yt.dedupe" system property:
+     * "term" (the default) gives each search a new set, "run" shares one set between all searches of the JVM,
+     * and "off" disables de-duplication. IDs are kept in a primitive hash set, or with -Dyt.dedupe.bloom=<expected IDs>
+     * in a Bloom filter of about 1.2 bytes per ID that wrongly reports "-Dyt.dedupe.fpp" (default 1%) of new IDs as seen.
+     *
+     * @return The set, or null if de-duplication is off.
+     */
+    public static VideoIdSet forSearch() {
+        String scope = System.getProperty("yt.dedupe", "term");
+        if ("off".equalsIgnoreCase(scope)) {
+            return null;
+        }
+        if (!"run".equalsIgnoreCase(scope)) {
+            return create();
+        }
+        synchronized (VideoIdSet.class) {
+            if (run == null) {
+                run = create();
+            }
+            return run;
+        }
+    }
+
+    private static VideoIdSet create() {
+        long expectedIds = Long.getLong("yt.dedupe.bloom", 0);
+        double falsePositiveRate = Double.parseDouble(System.getProperty("yt.dedupe.fpp", "0.01"));
+        return new VideoIdSet(expectedIds, falsePositiveRate);
+    }
+
+    /**
+     * Creates a primitive hash set of packed video IDs.
+     *
+     * @return An empty set that grows as IDs are added.
+     */
+    public static VideoIdSet hashSet() {
+        return new VideoIdSet(0, 0);
+    }
+
+    /**
+     * Creates a Bloom filter of video IDs, sized for a number of IDs and a false-positive rate.
+     *
+     * @param expectedIds The number of IDs the filter is sized for.
+     * @param falsePositiveRate The rate of new IDs wrongly reported as seen once the expected number is added, e.g. 0.01.
+     * @return An empty filter of fixed size.
+     */
+    public static VideoIdSet bloomFilter(long expectedIds, double falsePositiveRate) {
+        return new VideoIdSet(expectedIds, falsePositiveRate);
+    }
+
+    /**
+     * Adds a video ID, unless it was added before.
+     *
+     * @param id The 11-character video ID.
+     * @return True if the ID is new, or is not a valid video ID and so cannot be compared; false if it was seen.
+     */
+    public boolean add(String id) {
+        long packed;
+        try {
+            packed = VideoIds.pack(id);
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+        return add(packed);
+    }
+
+    /**
+     * Adds a packed video ID (see VideoIds.pack), unless it was added before.
+     *
+     * @param id The packed video ID.
+     * @return True if the ID is new, false if it was seen.
+     */
+    public synchronized boolean add(long id) {
+        boolean added = (bits != null) ? addToFilter(id) : addToTable(id);
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    /**
+     * Returns the number of distinct IDs added.
+     *
+     * @return The number of IDs.
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Returns the memory taken by the IDs, not counting the object headers.
+     *
+     * @return The size of the table or filter in bytes.
+     */
+    public synchronized long bytes() {
+        return 8L * ((bits != null) ? bits.length : table.length);
+    }
+
+    /**
+     * Returns the memory taken per ID added.
+     *
+     * @return The bytes per ID, or 0 if the set is empty.
+     */
+    public synchronized double bytesPerId() {
+        return (size == 0) ? 0 : (double) bytes() / size;
+    }
+
+    private boolean addToTable(long id) {
+        if (id == 0) {
+            boolean added = !hasZero;
+            hasZero = true;
+            return added;
+        }
+        int mask = table.length - 1;
+        int slot = (int) mix(id) & mask;
+        while (table[slot] != 0) {
+            if (table[slot] == id) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = id;
+        if (size + 1 > table.length * MAX_LOAD) {
+            grow();
+        }
+        return true;
+    }
+
+    private void grow() {
+        long[] old = table;
+        table = new long[old.length * 2];
+        int mask = table.length - 1;
+        for (long id : old) {
+            if (id != 0) {
+                int slot = (int) mix(id) & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = id;
+            }
+        }
+    }
+
+    // Sets the bits of the ID derived by double hashing; the ID is new if any of them was clear. Each hash is
+    // mapped onto the bits by multiplying its high 32 bits with the bit count, which is cheaper than a modulo
+    private boolean addToFilter(long id) {
+        long h1 = mix(id);
+        long h2 = mix(h1) | 1;
+        boolean added = false;
+        for (int i = 0; i < hashes; i++) {
+            long bit = (((h1 + i * h2) >>> 32) * bitCount) >>> 32;
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            if ((bits[word] & mask) == 0) {
+                bits[word] |= mask;
+                added = true;
+            }
+        }
+        return added;
+    }
+
+    // Spreads the bits of the packed ID (the finalizer of MurmurHash3)
+    private static long mix(long id) {
+        id ^= id >>> 33;
+        id *= 0xff51afd7ed558ccdL;
+        id ^= id >>> 33;
+        id *= 0xc4ceb93e2a3c2e53L;
+        id ^= id >>> 33;
+        return id;
+    }
+}
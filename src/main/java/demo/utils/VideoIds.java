@@ -0,0 +1,48 @@
+package demo.utils;
+
+import java.util.Arrays;
+
+public class VideoIds {
+    // Value of each base64url character, -1 for characters that cannot appear in a video ID
+    private static final int[] VALUES = new int[128];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            VALUES[alphabet.charAt(i)] = i;
+        }
+    }
+
+    /**
+     * Packs an 11-character YouTube video ID into a long without allocating. The first ten characters
+     * carry 6 bits each; the last one only 4, as YouTube IDs encode 64 bits, so every ID maps to a distinct long.
+     *
+     * @param id The video ID, e.g. "dQw4w9WgXcQ".
+     * @return The 64 bits of the ID.
+     * @throws IllegalArgumentException If the text is not a valid video ID.
+     */
+    public static long pack(CharSequence id) {
+        if (id == null || id.length() != 11) {
+            throw new IllegalArgumentException("Not a video ID: " + id);
+        }
+        long packed = 0;
+        for (int i = 0; i < 10; i++) {
+            packed = (packed << 6) | value(id, i);
+        }
+        int last = value(id, 10);
+        if ((last & 3) != 0) {
+            throw new IllegalArgumentException("Not a video ID: " + id);
+        }
+        return (packed << 4) | (last >>> 2);
+    }
+
+    private static int value(CharSequence id, int index) {
+        char c = id.charAt(index);
+        int value = (c < 128) ? VALUES[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Not a video ID: " + id);
+        }
+        return value;
+    }
+}
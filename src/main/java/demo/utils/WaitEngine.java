@@ -0,0 +1,125 @@
+package demo.utils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+
+public class WaitEngine {
+    // Polls quickly at first, then backs off up to the last interval
+    private static final long[] POLL_INTERVALS_MILLIS = {10, 25, 50, 100, 200, 400, 500};
+
+    // Successful waits needed before a learned timeout applies
+    private static final int MIN_SAMPLES = 5;
+
+    // Learned timeouts are a multiple of the slowest observed wait, never below the floor
+    private static final long LEARNED_TIMEOUT_FACTOR = 3;
+    private static final long LEARNED_TIMEOUT_FLOOR_MILLIS = 2_000;
+
+    private static final boolean ADAPTIVE = Boolean.parseBoolean(System.getProperty("yt.wait.adaptive", "false"));
+    private static final Map<String, Latency> LATENCIES = new ConcurrentHashMap<>();
+
+    /**
+     * Waits until the element located by the given locator is visible and returns it, so callers
+     * do not need to look it up again.
+     *
+     * @param driver The WebDriver instance to use for locating the element.
+     * @param locator The locator strategy used to find the web element.
+     * @param timeout The longest time to wait for the element.
+     * @return The visible web element.
+     * @throws TimeoutException If the element is not visible within the timeout.
+     */
+    public static WebElement visible(WebDriver driver, By locator, Duration timeout) {
+        return until(driver, "visible:" + locator, timeout, ExpectedConditions.visibilityOfElementLocated(locator));
+    }
+
+    /**
+     * Repeatedly applies the condition until it returns a value other than null or false.
+     * Not-found and stale element exceptions count as not ready yet. Once enough waits on the same key
+     * have succeeded, a wait outlasting a multiple of the slowest of them is logged and goes on until the given timeout.
+     * With -Dyt.wait.adaptive=true it fails at that learned timeout instead, so waits for elements that never
+     * show up fail fast, at the risk of failing a slow page load the given timeout would have allowed.
+     *
+     * @param driver The WebDriver instance passed to the condition.
+     * @param key The key under which latencies are learned, usually the kind of condition and the locator.
+     * @param timeout The longest time to wait.
+     * @param condition The condition to wait for.
+     * @return The value returned by the condition.
+     * @throws TimeoutException If the condition is not met within the timeout.
+     */
+    public static <T> T until(WebDriver driver, String key, Duration timeout, Function<? super WebDriver, T> condition) {
+        Latency latency = LATENCIES.computeIfAbsent(key, k -> new Latency());
+        long learnedMillis = latency.timeoutMillis(timeout.toMillis());
+        long timeoutMillis = ADAPTIVE ? learnedMillis : timeout.toMillis();
+        boolean overLearned = false;
+        long start = System.nanoTime();
+        RuntimeException lastException = null;
+
+        for (int attempt = 0; ; attempt++) {
+            try {
+                T value = condition.apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    latency.record((System.nanoTime() - start) / 1_000_000);
+                    return value;
+                }
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                lastException = e;
+            }
+
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            if (!ADAPTIVE && !overLearned && learnedMillis < timeout.toMillis() && elapsedMillis >= learnedMillis) {
+                // Slower than every wait learned so far, keep waiting up to the caller's timeout
+                overLearned = true;
+                YouTubeUtils.logStatus("until", String.format("Waiting for %s past its learned timeout of %s ms", key, learnedMillis));
+            }
+            if (elapsedMillis >= timeoutMillis) {
+                // A learned timeout was too short: start learning again from the caller's timeout
+                if (timeoutMillis < timeout.toMillis()) {
+                    latency.reset();
+                }
+                throw new TimeoutException(String.format("Expected condition failed: waiting for %s (tried for %s ms)", key, elapsedMillis), lastException);
+            }
+
+            long interval = POLL_INTERVALS_MILLIS[Math.min(attempt, POLL_INTERVALS_MILLIS.length - 1)];
+            try {
+                Thread.sleep(Math.min(interval, timeoutMillis - elapsedMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TimeoutException("Interrupted while waiting for " + key, e);
+            }
+        }
+    }
+
+    /**
+     * Latencies observed for one key.
+     */
+    private static class Latency {
+        private int samples;
+        private long maxMillis;
+
+        synchronized void record(long millis) {
+            samples++;
+            maxMillis = Math.max(maxMillis, millis);
+        }
+
+        synchronized void reset() {
+            samples = 0;
+            maxMillis = 0;
+        }
+
+        synchronized long timeoutMillis(long ceilingMillis) {
+            if (samples < MIN_SAMPLES) {
+                return ceilingMillis;
+            }
+            return Math.min(ceilingMillis, Math.max(LEARNED_TIMEOUT_FLOOR_MILLIS, maxMillis * LEARNED_TIMEOUT_FACTOR));
+        }
+    }
+}
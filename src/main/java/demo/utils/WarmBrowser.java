@@ -0,0 +1,254 @@
+package demo.utils;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.manager.SeleniumManager;
+import org.openqa.selenium.remote.CapabilityType;
+
+public class WarmBrowser implements Supplier<WebDriver>, SessionPolicy {
+    // Time a newly launched browser gets to open its DevTools port, and a closed one to release it
+    private static final long LAUNCH_TIMEOUT_MILLIS = 15_000;
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+    // Origins whose storage is cleared between tests, and every storage type but the HTTP cache kept primed
+    private static final List<String> ORIGINS = List.of("https://www.youtube.com", "https://m.youtube.com", "https://accounts.google.com", "https://www.google.com");
+    private static final String STORAGE_TYPES = "cookies,local_storage,indexeddb,websql,file_systems,service_workers,cache_storage,shader_cache";
+
+    private final ChromeOptions options;
+    private final UnaryOperator<WebDriver> setup;
+    private final Path profiles = Paths.get(System.getProperty("yt.warm.dir", ".warm-chrome"));
+    private final int basePort = Integer.getInteger("yt.warm.port", 9230);
+    private final int maxUses = Integer.getInteger("yt.warm.maxUses", 25);
+
+    // Slot of each session; a slot is one browser with its own profile directory and DevTools port
+    private final Map<WebDriver, Integer> slots = new ConcurrentHashMap<>();
+    private final Set<Integer> freeSlots = ConcurrentHashMap.newKeySet();
+    private int nextSlot;
+
+    /**
+     * Creates a source of sessions attached to long-lived Chrome browsers, which keep running after the JVM
+     * exits so the next run finds them started, with their profile and HTTP cache already primed.
+     * Each browser keeps its profile in "yt.warm.dir" (".warm-chrome" by default) and listens for DevTools
+     * on a port counted up from "yt.warm.port" (9230 by default). A browser is restarted after
+     * "yt.warm.maxUses" tests (25 by default).
+     *
+     * @param options The options the browsers are launched with; their arguments are passed to Chrome.
+     * @param setup Applied to every new session before it is returned, e.g. the browser profile.
+     */
+    public WarmBrowser(ChromeOptions options, UnaryOperator<WebDriver> setup) {
+        this.options = options;
+        this.setup = setup;
+    }
+
+    /**
+     * Attaches a new WebDriver session to the browser of a free slot, launching the browser if it is not running.
+     *
+     * @return The WebDriver session.
+     */
+    @Override
+    public WebDriver get() {
+        int slot = takeSlot();
+        WebDriver driver = null;
+        try {
+            int port = basePort + slot;
+            if (!isListening(port)) {
+                launch(slot, port);
+            }
+
+            // Attach to the running browser; quitting this session leaves the browser running
+            ChromeOptions attach = new ChromeOptions();
+            attach.setExperimentalOption("debuggerAddress", "127.0.0.1:" + port);
+            Object pageLoadStrategy = options.getCapability(CapabilityType.PAGE_LOAD_STRATEGY);
+            if (pageLoadStrategy != null) {
+                attach.setCapability(CapabilityType.PAGE_LOAD_STRATEGY, pageLoadStrategy);
+            }
+            driver = new ChromeDriver(attach);
+            slots.put(driver, slot);
+
+            // A browser left by an earlier run may still show that run's pages
+            reset(driver);
+            return setup.apply(driver);
+        } catch (RuntimeException e) {
+            // End the half set up session, so the slot is not taken by a session nobody holds
+            if (driver != null) {
+                slots.remove(driver);
+                try {
+                    driver.quit();
+                } catch (RuntimeException quitException) {
+                    YouTubeUtils.logStatus("get", "Exception\n\t\t\t" + quitException.getMessage());
+                }
+            }
+            freeSlots.add(slot);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks that the browser still answers script calls.
+     *
+     * @param driver The idle WebDriver session.
+     * @return True if the session responds.
+     */
+    @Override
+    public boolean isHealthy(WebDriver driver) {
+        return !driver.getWindowHandles().isEmpty() && ((JavascriptExecutor) driver).executeScript("return document.readyState;") != null;
+    }
+
+    /**
+     * Closes every tab but one, clears the cookies of every site and the storage of the tested origins and opens
+     * a blank page, keeping the HTTP cache. Storage is cleared through DevTools, so it does not depend on the
+     * origin of the open tab, which is about:blank on a browser attached again.
+     *
+     * @param driver The released WebDriver session.
+     */
+    @Override
+    public void reset(WebDriver driver) {
+        List<String> handles = new ArrayList<>(driver.getWindowHandles());
+        for (String handle : handles.subList(1, handles.size())) {
+            driver.switchTo().window(handle).close();
+        }
+        driver.switchTo().window(handles.get(0));
+        // Session storage belongs to the tab, so clear it on the page the test left before leaving it
+        ((JavascriptExecutor) driver).executeScript("try { sessionStorage.clear(); } catch (e) {}");
+        driver.get("about:blank");
+
+        ChromeDriver chrome = (ChromeDriver) driver;
+        chrome.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+        for (String origin : ORIGINS) {
+            chrome.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", STORAGE_TYPES));
+        }
+    }
+
+    @Override
+    public int maxUses() {
+        return maxUses;
+    }
+
+    /**
+     * Closes the browser of the session, so the next session on its slot starts a fresh browser on the same profile.
+     * Browser.close returns before the browser is gone, so the slot is freed only once its DevTools port is closed;
+     * a browser still listening after a while keeps its slot, and later sessions use new slots.
+     *
+     * @param driver The WebDriver session to end.
+     */
+    @Override
+    public void retire(WebDriver driver) {
+        Integer slot = slots.remove(driver);
+        try {
+            ((ChromeDriver) driver).executeCdpCommand("Browser.close", Map.of());
+        } catch (Exception e) {
+            YouTubeUtils.logStatus("retire", "Exception\n\t\t\t" + e.getMessage());
+        }
+        try {
+            driver.quit();
+        } finally {
+            if (slot != null) {
+                if (awaitPort(basePort + slot, false, CLOSE_TIMEOUT_MILLIS)) {
+                    freeSlots.add(slot);
+                } else {
+                    YouTubeUtils.logStatus("retire", "Warm browser still listening on port " + (basePort + slot) + ", not reusing its slot");
+                }
+            }
+        }
+    }
+
+    private synchronized int takeSlot() {
+        for (Integer slot : freeSlots) {
+            if (freeSlots.remove(slot)) {
+                return slot;
+            }
+        }
+        return nextSlot++;
+    }
+
+    private void launch(int slot, int port) {
+        try {
+            Path profile = profiles.resolve("slot-" + slot).toAbsolutePath();
+            Files.createDirectories(profile);
+
+            List<String> command = new ArrayList<>();
+            command.add(chromeBinary());
+            command.add("--remote-debugging-port=" + port);
+            command.add("--user-data-dir=" + profile);
+            command.add("--no-first-run");
+            command.add("--no-default-browser-check");
+            command.addAll(arguments());
+            command.add("about:blank");
+            YouTubeUtils.logStatus("launch", "Launching warm browser on port " + port + " with profile " + profile);
+
+            // The browser is not a child the JVM waits for, so it outlives this run
+            new ProcessBuilder(command).redirectOutput(ProcessBuilder.Redirect.DISCARD).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+        } catch (IOException e) {
+            throw new SessionNotCreatedException("Could not launch warm browser on port " + port, e);
+        }
+
+        if (!awaitPort(port, true, LAUNCH_TIMEOUT_MILLIS)) {
+            throw new SessionNotCreatedException("Warm browser did not open port " + port);
+        }
+    }
+
+    // Waits until the DevTools port is open or closed, returning false if it is not by the timeout
+    private static boolean awaitPort(int port, boolean listening, long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (isListening(port) != listening) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String chromeBinary() {
+        String binary = System.getProperty("yt.warm.chrome");
+        if (binary != null) {
+            return binary;
+        }
+        return SeleniumManager.getInstance().getBinaryPaths(List.of("--browser", "chrome")).getBrowserPath();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> arguments() {
+        Object chromeOptions = options.asMap().get(ChromeOptions.CAPABILITY);
+        if (chromeOptions instanceof Map) {
+            Object args = ((Map<String, Object>) chromeOptions).get("args");
+            if (args instanceof List) {
+                return (List<String>) args;
+            }
+        }
+        return List.of();
+    }
+
+    private static boolean isListening(int port) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + port + "/json/version").openConnection();
+            connection.setConnectTimeout(500);
+            connection.setReadTimeout(500);
+            return connection.getResponseCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
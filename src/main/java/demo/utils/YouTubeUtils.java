@@ -0,0 +1,490 @@
+package demo.utils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+import org.apache.logging.log4j.ThreadContext;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+public class YouTubeUtils {
+    private static final Logger LOGGER = LogManager.getLogger(YouTubeUtils.class);
+    private static final Marker TEST_STEP = MarkerManager.getMarker("TEST_STEP");
+
+    // Formatters are immutable and thread-safe, so each pattern is compiled once
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+    // Read-only extractions run against an in-process snapshot of the page instead of the live DOM
+    private static final boolean SNAPSHOT = Boolean.getBoolean("yt.snapshot");
+
+    // Harvested search results are hollowed out in the browser, so long runs keep a page of constant size
+    private static final boolean PRUNE = Boolean.getBoolean("yt.prune");
+
+    /**
+     * Logs a status message with the specified method name and message to the console.
+     * The message is written asynchronously, prefixed with the timestamp, thread and test context.
+     *
+     * @param methodName The name of the method associated with the log message.
+     * @param message The message to be logged.
+     */
+    public static void logStatus(String methodName, String message) {
+        LOGGER.info("{} | {}", methodName, message);
+    }
+
+    /**
+     * Logs a status message with the specified test case ID, test step, and test message to the console.
+     * The message is written asynchronously, prefixed with the timestamp, thread and test context.
+     *
+     * @param testCaseID The ID of the test case associated with the log message.
+     * @param testStep The step of the test case associated with the log message.
+     * @param testMessage The message related to the test step.
+     */
+    public static void logStatus(String testCaseID, String testStep, String testMessage) {
+        LOGGER.info(TEST_STEP, "{} | {} | {}", testCaseID, testStep, testMessage);
+    }
+
+    /**
+     * Tags the log lines of the current thread with the test being run and its data row, if any,
+     * so interleaved lines of parallel tests can be told apart.
+     *
+     * @param testId The ID of the test run by the current thread.
+     * @param dataRow The data row of the test, or null if the test is not data driven.
+     */
+    public static void setTestContext(String testId, Object dataRow) {
+        ThreadContext.put("testId", testId);
+        if (dataRow != null) {
+            ThreadContext.put("dataRow", String.valueOf(dataRow));
+        } else {
+            ThreadContext.remove("dataRow");
+        }
+    }
+
+    /**
+     * Removes the test context of the current thread.
+     */
+    public static void clearTestContext() {
+        ThreadContext.clearMap();
+    }
+
+    /**
+     * Retrieves the current date and time in the specified format pattern.
+     *
+     * @param formatPattern The pattern used to format the date and time (e.g., "yyyy-MM-dd HH:mm:ss").
+     * @return A string representing the current date and time formatted according to the specified pattern.
+     */
+    public static String getDateTime(String formatPattern) {
+        LocalDateTime now = LocalDateTime.now();
+        return now.format(FORMATTERS.computeIfAbsent(formatPattern, DateTimeFormatter::ofPattern));
+    }
+
+    /**
+     * Verifies if the current URL of the WebDriver contains the specified text.
+     *
+     * @param driver The WebDriver instance whose current URL is to be verified.
+     * @param textToContain The text to be checked for existence in the current URL.
+     * @return True if the current URL contains the specified text, false otherwise.
+     */
+    public static Boolean verifyCurrentUrlContains(WebDriver driver, String textToContain) {
+        PageMetrics.Sample before = PageMetrics.sample(driver);
+        long start = System.nanoTime();
+        try {
+            logStatus("verifyCurrentUrlContains", "Verifying current URL");
+
+            // Get the current URL
+            String actualUrl = driver.getCurrentUrl();
+
+            // Check if the current URL contains the specified text
+            return actualUrl.contains(textToContain);
+        } catch (Exception e) {
+            logStatus("verifyCurrentUrlContains", "Exception\n\t\t\t" + e.getMessage());
+            FailureEvidence.stepFailed(driver, "verifyCurrentUrlContains");
+            return false;
+        } finally {
+            StepMetrics.record("verifyCurrentUrlContains", "", start);
+            PageMetrics.record("verifyCurrentUrlContains", null, driver, before);
+        }
+    }
+
+    /**
+     * Scrolls the viewport to make the specified element visible within the WebDriver's current viewport.
+     *
+     * @param driver The WebDriver instance on which the scrolling operation is performed.
+     * @param locator The By locator used to identify the element to scroll to.
+     */
+    public static void scrollToViewport(WebDriver driver, By locator) {
+        PageMetrics.Sample before = PageMetrics.sample(driver);
+        long start = System.nanoTime();
+        try {
+            logStatus("scrollToViewport", "Scrolling to viewport");
+
+            // Wait for the element to become visible
+            WebElement element = WaitEngine.visible(driver, locator, Duration.ofSeconds(10));
+
+            // JavaScript executor to scroll the viewport to the element
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            js.executeScript("arguments[0].scrollIntoView();", element);
+        } catch (Exception e) {
+            logStatus("scrollToViewport", "Exception\n\t\t\t" + e.getMessage());
+            FailureEvidence.stepFailed(driver, "scrollToViewport");
+        } finally {
+            StepMetrics.record("scrollToViewport", locator, start);
+            PageMetrics.record("scrollToViewport", locator, driver, before);
+        }
+    }
+
+    /**
+     * Retrieves and prints the displayed message of an element identified by the specified locator.
+     *
+     * @param driver The WebDriver instance where the element is located.
+     * @param locator The By locator used to identify the element containing the displayed message.
+     */
+    public static void getDisplayedMessage(WebDriver driver, By locator) {
+        PageMetrics.Sample before = PageMetrics.sample(driver);
+        long start = System.nanoTime();
+        try {
+            logStatus("getDisplayedMessage", "Printing displayed message");
+
+            // Find the element containing the displayed message
+            WebElement messageElement = driver.findElement(locator);
+
+            // Print the displayed message
+            logStatus("getDisplayedMessage", "Printing message\n" + messageElement.getText());
+        } catch (Exception e) {
+            logStatus("getDisplayedMessage", "Exception\n\t\t\t" + e.getMessage());
+            FailureEvidence.stepFailed(driver, "getDisplayedMessage");
+        } finally {
+            StepMetrics.record("getDisplayedMessage", locator, start);
+            PageMetrics.record("getDisplayedMessage", locator, driver, before);
+        }
+    }
+
+    /**
+     * Scrolls a shelf to its extreme end in a single script call, clicking the element identified by the specified
+     * locator from within the page until the shelf hides it.
+     *
+     * @param driver The WebDriver instance to perform the scrolling operation.
+     * @param locator The By locator used to identify the element to click for scrolling.
+     * @return The number of items loaded in the shelf, or 0 if the element was not found.
+     */
+    public static int scrollToExtreme(WebDriver driver, By locator) {
+        PageMetrics.Sample before = PageMetrics.sample(driver);
+        long start = System.nanoTime();
+        int items = 0;
+        try {
+            logStatus("scrollToExtreme", "Scrolling to extreme");
+
+            // Navigate to the end of the shelf, waiting up to 1 second for the element to appear
+            Map<String, Object> result = Carousel.scrollToEnd(driver, locator, 1_000, 20_000);
+            if (!Boolean.TRUE.equals(result.get("found"))) {
+                logStatus("scrollToExtreme", "Element not found: " + locator);
+                return items;
+            }
+            items = ((Number) result.get("items")).intValue();
+            logStatus("scrollToExtreme", String.format("Clicked %s times, %s items loaded%s", result.get("clicks"), items, Boolean.TRUE.equals(result.get("atEnd")) ? "" : ", end not reached"));
+        } catch (Exception e) {
+            logStatus("scrollToExtreme", "Exception\n\t\t\t" + e.getMessage());
+            FailureEvidence.stepFailed(driver, "scrollToExtreme");
+        } finally {
+            StepMetrics.record("scrollToExtreme", locator, start);
+            PageMetrics.record("scrollToExtreme", locator, driver, before);
+        }
+        return items;
+    }
+
+    /**
+     * Retrieves a WebElement identified by the specified locator within the WebDriver's current context.
+     *
+     * @param driver The WebDriver instance where the element is located.
+     * @param elementLocator The By locator used to identify the WebElement to retrieve.
+     * @return The WebElement identified by the locator if found and visible within the specified timeout, otherwise returns null.
+     */
+    public static WebElement getElement(WebDriver driver, By elementLocator) {
+        PageMetrics.Sample before = PageMetrics.sample(driver);
+        long start = System.nanoTime();
+        WebElement movieElement = null;
+        try {
+            logStatus("getElement", "Getting element");
+
+            // Wait for the element to become visible
+            movieElement = WaitEngine.visible(driver, elementLocator, Duration.ofSeconds(10));
+        } catch (Exception e) {
+            logStatus("getElement", "Exception\n\t\t\t" + e.getMessage());
+            FailureEvidence.stepFailed(driver, "getElement");
+        } finally {
+            StepMetrics.record("getElement", elementLocator, start);
+            PageMetrics.record("getElement", elementLocator, driver, before);
+        }
+        return movieElement;
+    }
+
+    /**
+    * Retrieves the text content of a child element located within a parent element identified by the provided locators.
+    *
+    * @param driver The WebDriver instance where the elements are located.
+    * @param elementLocator The By locator used to identify the parent element.
+    * @param childLocator The By locator used to identify the child element within the parent element.
+    * @return The text content of the child element if found, otherwise an empty string.
+    */
+    public static String getElementText(WebDriver driver, By elementLocator, By childLocator) {
+        return getElementTexts(driver, elementLocator, Map.of("text", childLocator)).get("text");
+    }
+
+    /**
+     * Retrieves the text content of several child elements of the first element matched by the parent locator,
+     * in a single WebDriver round trip once the parent element is present.
+     *
+     * @param driver The WebDriver instance where the elements are located.
+     * @param elementLocator The By locator used to identify the parent element.
+     * @param childLocators The By locators used to identify the child elements within the parent element, keyed by field name.
+     * @return The text content of each child element keyed by field name, with an empty string for children that are not found.
+     */
+    public static Map<String, String> getElementTexts(WebDriver driver, By elementLocator, Map<String, By> childLocators) {
+        PageMetrics.Sample before = PageMetrics.sample(driver);
+        long start = System.nanoTime();
+        Map<String, String> texts = new LinkedHashMap<>();
+        for (String name : childLocators.keySet()) {
+            texts.put(name, "");
+        }
+        try {
+            logStatus("getElementTexts", "Getting element texts");
+
+            // Wait until the parent element is present and extract all children at once
+            List<Map<String, String>> records = extract(driver, elementLocator, childLocators, Duration.ofSeconds(10));
+
+            // Keep the texts of the children that were found
+            records.get(0).forEach((name, text) -> {
+                if (text != null) {
+                    texts.put(name, text);
+                }
+            });
+        } catch (Exception e) {
+            logStatus("getElementTexts", "Exception\n\t\t\t" + e.getMessage());
+            FailureEvidence.stepFailed(driver, "getElementTexts");
+        } finally {
+            StepMetrics.record("getElementTexts", elementLocator, start);
+            PageMetrics.record("getElementTexts", elementLocator, driver, before);
+        }
+        return texts;
+    }
+
+    /**
+     * Retrieves a list of WebElements identified by the specified locator within the WebDriver's current context.
+     *
+     * @param driver The WebDriver instance where the elements are located.
+     * @param firstNNewsLocator The By locator used to identify the list of WebElements to retrieve.
+     * @return A list of WebElements identified by the locator if found, otherwise an empty list.
+     */
+    public static List<WebElement> getElements(WebDriver driver, By firstNNewsLocator) {
+        PageMetrics.Sample before = PageMetrics.sample(driver);
+        long start = System.nanoTime();
+        List<WebElement> elements = new ArrayList<>();
+        try {
+            logStatus("getElements", "Getting elements");
+
+            // Find all elements matching the locator
+            elements = driver.findElements(firstNNewsLocator);
+        } catch (Exception e) {
+            logStatus("getElements", "Exception\n\t\t\t" + e.getMessage());
+            FailureEvidence.stepFailed(driver, "getElements");
+        } finally {
+            StepMetrics.record("getElements", firstNNewsLocator, start);
+            PageMetrics.record("getElements", firstNNewsLocator, driver, before);
+        }
+        return elements;
+    }
+
+    /**
+     * Retrieves the body content and view count of news posts identified by the specified locator within the WebDriver's current context.
+     *
+     * @param driver The WebDriver instance where the news posts are located.
+     * @param firstNNewsLocator The By locator used to identify the list of news posts.
+     */
+    public static void getBodyAndViewCount(WebDriver driver, By firstNNewsLocator) {
+        PageMetrics.Sample before = PageMetrics.sample(driver);
+        long start = System.nanoTime();
+        long totalLikes = 0;
+        try {
+            logStatus("getBodyAndViewCount", "Getting body and view count");
+
+            // Fields to read from each news post
+            Map<String, By> fields = new LinkedHashMap<>();
+            fields.put("likes", Locators.POST_LIKES);
+            fields.put("body", Locators.POST_BODY);
+
+            // Wait for the news posts to appear and extract the fields of all of them in one round trip
+            List<Map<String, String>> newsPosts = extract(driver, firstNNewsLocator, fields, Duration.ofSeconds(10));
+
+            // Iterate through each news post
+            for (Map<String, String> newsPost : newsPosts) {
+                long likes = 0;
+                try {
+                    // Parse the number of likes for the current news post, e.g. "1.2K"
+                    likes = CountParser.parse(newsPost.get("likes"));
+                } catch (NumberFormatException e) {
+                    // If likes count cannot be parsed, set likes to 0
+                    logStatus("getBodyAndViewCount", "Unreadable likes count: " + newsPost.get("likes"));
+                }
+                totalLikes += likes;
+
+                logStatus("getBodyAndViewCount", String.format("%s Likes, Body: %s", likes, newsPost.get("body")));
+                ResultsExporter.record(ResultsExporter.POSTS, likes, newsPost.get("body"));
+            }
+        } catch (Exception e) {
+            logStatus("getBodyAndViewCount", "Exception\n\t\t\t" + e.getMessage());
+            FailureEvidence.stepFailed(driver, "getBodyAndViewCount");
+        } finally {
+            StepMetrics.record("getBodyAndViewCount", firstNNewsLocator, start);
+            PageMetrics.record("getBodyAndViewCount", firstNNewsLocator, driver, before);
+        }
+        logStatus("getBodyAndViewCount", "Total likes: " + totalLikes);
+    }
+
+    /**
+     * Scrolls through video views until the total count reaches the specified target count.
+     *
+     * @param driver The WebDriver instance where the videos are located.
+     * @param totalCount The target total count of video views to reach.
+     * @return True if the count was reached or the results ran out, false if the search failed on the way.
+     */
+    public static boolean scrollTillVideoCountReaches(WebDriver driver, long totalCount) {
+        return scrollTillVideoCountReaches(driver, null, totalCount);
+    }
+
+    /**
+     * Scrolls through the video views of a search until the total count reaches the specified target count.
+     * With -Dyt.checkpoint=<journal>, progress is journaled after every batch: a rerun continues the search
+     * past the results an earlier run already counted, and finished searches are not run again (see ExcelDP).
+     * Each video is counted once per search, or once per run with -Dyt.dedupe=run (see VideoIdSet).
+     * With -Dyt.prune=true, harvested results are taken out of the page, leaving one empty spacer per loaded page of
+     * results, so the page grows by a few nodes per page instead of every result's subtree; the browser heap is logged per batch.
+     *
+     * @param driver The WebDriver instance where the videos are located.
+     * @param searchTerm The search the results belong to, or null to keep no checkpoint.
+     * @param totalCount The target total count of video views to reach.
+     * @return True if the count was reached or the results ran out, false if the search failed on the way.
+     */
+    public static boolean scrollTillVideoCountReaches(WebDriver driver, String searchTerm, long totalCount) {
+        PageMetrics.Sample before = PageMetrics.sample(driver);
+        long start = System.nanoTime();
+        long harvestedViews = 0;
+        try {
+            logStatus("scrollTillVideoCountReaches", "Scrolling till view count reaches " + totalCount);
+
+            // Harvest results in batches, loading more only once the rendered ones are used up
+            VideoHarvester harvester = new VideoHarvester(driver, 20_000, PRUNE);
+
+            // Videos already counted, as the feed repeats results after a re-render and across related searches
+            VideoIdSet seen = VideoIdSet.forSearch();
+            long duplicates = 0;
+
+            // Continue past the results counted by an earlier run of the same search
+            long[] checkpoint = CrawlCheckpoint.resume(searchTerm);
+            if (checkpoint[0] > 0) {
+                int cursor = harvester.skipTo((int) checkpoint[0]);
+                harvestedViews = checkpoint[1];
+                totalCount -= harvestedViews;
+                logStatus("scrollTillVideoCountReaches", String.format("Resuming after %s results and %s views, Remaining: %s", cursor, harvestedViews, totalCount));
+            }
+
+            // Continue harvesting until the total count reaches 0 or below
+            while (totalCount > 0) {
+                long batchStart = System.nanoTime();
+                List<Map<String, String>> batch = harvester.nextBatch();
+                StepMetrics.record("harvestBatch", "", batchStart);
+                logStatus("scrollTillVideoCountReaches", String.format("Batch of %s results in %s ms, browser heap: %s", batch.size(), (System.nanoTime() - batchStart) / 1_000_000,
+                        (harvester.getHeapBytes() < 0) ? "not reported" : String.format("%.1f MB", harvester.getHeapBytes() / 1e6)));
+                if (batch.isEmpty()) {
+                    logStatus("scrollTillVideoCountReaches", "No more videos, Remaining: " + totalCount);
+                    break;
+                }
+
+                for (Map<String, String> video : batch) {
+                    String id = video.get("id");
+                    if (seen != null && id != null && !seen.add(id)) {
+                        duplicates++;
+                        continue;
+                    }
+
+                    String viewsText = video.get("views");
+                    if (viewsText == null) {
+                        continue;
+                    }
+
+                    // Subtract the views count of the current video from the total count
+                    long views;
+                    try {
+                        views = CountParser.parse(viewsText);
+                    } catch (NumberFormatException e) {
+                        logStatus("scrollTillVideoCountReaches", "Skipping unreadable count: " + viewsText);
+                        continue;
+                    }
+                    totalCount -= views;
+                    harvestedViews += views;
+                    ResultsExporter.record(ResultsExporter.VIDEOS, searchTerm, id, video.get("title"), viewsText, views);
+                    logStatus("scrollTillVideoCountReaches", String.format("(%s) %s views, Remaining: %s", viewsText, views, (totalCount <= 0) ? "Count reached" : totalCount));
+                    if (totalCount <= 0) {
+                        break;
+                    }
+                }
+                CrawlCheckpoint.progress(searchTerm, harvester.getCursor(), harvestedViews);
+            }
+            if (totalCount <= 0) {
+                CrawlCheckpoint.finish(searchTerm, harvester.getCursor(), harvestedViews);
+            } else {
+                // The results stopped loading before the count was reached, possibly a stall, so let a rerun retry
+                CrawlCheckpoint.progress(searchTerm, harvester.getCursor(), harvestedViews);
+            }
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            logStatus("scrollTillVideoCountReaches", String.format("Harvested %s videos in %.1fs (%.1f videos/s)", harvester.getCursor(), seconds, harvester.getCursor() / seconds));
+            if (seen != null) {
+                logStatus("scrollTillVideoCountReaches", String.format("Skipped %s duplicates, %s video IDs seen in %s bytes (%.1f bytes/ID)", duplicates, seen.size(), seen.bytes(), seen.bytesPerId()));
+            }
+            return true;
+        } catch (Exception e) {
+            logStatus("scrollTillVideoCountReaches", "Exception\n\t\t\t" + e.getMessage());
+            FailureEvidence.stepFailed(driver, "scrollTillVideoCountReaches");
+            return false;
+        } finally {
+            StepMetrics.record("scrollTillVideoCountReaches", "", start);
+            PageMetrics.record("scrollTillVideoCountReaches", null, driver, before);
+        }
+    }
+
+    /**
+     * Waits until the item locator matches, then extracts several fields from every matched element, either
+     * in the browser or, with -Dyt.snapshot=true, from a snapshot of the page captured in one round trip and
+     * parsed in-process. In snapshot mode the wait polls the live page, so the page is captured only once.
+     *
+     * @param driver The WebDriver instance where the elements are located.
+     * @param itemLocator The By locator used to identify the items to extract.
+     * @param fieldLocators The By locators of the fields to extract from each item, keyed by field name.
+     * @param timeout The longest time to wait for the items.
+     * @return One record per matched item, mapping each field name to its text, or to null if the item has no such field.
+     * @throws TimeoutException If no item is matched within the timeout.
+     */
+    private static List<Map<String, String>> extract(WebDriver driver, By itemLocator, Map<String, By> fieldLocators, Duration timeout) {
+        if (SNAPSHOT) {
+            WaitEngine.until(driver, "present:" + itemLocator, timeout, d -> !d.findElements(itemLocator).isEmpty());
+            return DomSnapshot.capture(driver).extract(itemLocator, fieldLocators);
+        }
+        return WaitEngine.until(driver, "extract:" + itemLocator, timeout, d -> {
+            List<Map<String, String>> extracted = DomExtractor.extract(d, itemLocator, fieldLocators);
+            return extracted.isEmpty() ? null : extracted;
+        });
+    }
+}
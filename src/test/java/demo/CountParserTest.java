@@ -0,0 +1,48 @@
+package demo;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import demo.utils.CountParser;
+
+public class CountParserTest {
+    /**
+     * Provides the count texts of counts.tsv, one row per line: the text, a tab, and the expected value
+     * or the name of the expected exception. Lines starting with "#" are comments.
+     *
+     * @return A two-dimensional array of objects holding the line number, the text and the expected value.
+     */
+    @DataProvider(name = "counts")
+    public Object[][] counts() throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(getClass().getResourceAsStream("/counts.tsv"), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] columns = line.split("\t", -1);
+                rows.add(new Object[]{lineNumber, columns[0], columns[1]});
+            }
+        }
+        return rows.toArray(new Object[0][]);
+    }
+
+    @Test(dataProvider = "counts", description = "Verify counts are parsed to their exact value")
+    public void parsesCount(int line, String text, String expected) {
+        if (expected.equals("NumberFormatException")) {
+            Assert.assertThrows(NumberFormatException.class, () -> CountParser.parse(text));
+        } else {
+            Assert.assertEquals(CountParser.parse(text), Long.parseLong(expected), "Line " + line + ": '" + text + "'");
+        }
+    }
+}
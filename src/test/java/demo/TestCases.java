@@ -1,70 +1,102 @@
 package demo;
 
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.WebDriverException;
 import org.testng.Assert;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 import org.testng.asserts.SoftAssert;
+import org.testng.xml.XmlSuite;
 
 import demo.utils.ActionsWrapper;
+import demo.utils.BrowserSessions;
+import demo.utils.DriverPool;
 import demo.utils.ExcelDP;
+import demo.utils.Locators;
+import demo.utils.ResultsExporter;
+import demo.utils.StepMetrics;
+import demo.utils.TabPrefetcher;
 import demo.utils.YouTubeUtils;
 
 public class TestCases {
-    WebDriver driver;
-    SoftAssert sa;
+    DriverPool pool;
 
-    @BeforeClass
-    public void createDriver() {
+    @BeforeClass(alwaysRun = true)
+    public void createDriver(ITestContext context) {
         YouTubeUtils.logStatus("createDriver", "Creating driver");
 
-        // Setting up ChromeOptions with desired arguments
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("start-maximized");
-        options.addArguments("--disable-blink-features=AutomationControlled");
-
-        // Creating a Chrome WebDriver instance with the specified options
-        driver = new ChromeDriver(options);
+        // Creating a pool of Chrome WebDriver instances, one per suite or data provider thread
+        XmlSuite suite = context.getSuite().getXmlSuite();
+        int poolSize = Math.max(1, Math.max(suite.getThreadCount(), suite.getDataProviderThreadCount()));
+        pool = BrowserSessions.pool(poolSize);
 
-        YouTubeUtils.logStatus("createDriver", "Done driver creation");
+        YouTubeUtils.logStatus("createDriver", "Done driver creation, pool size: " + poolSize);
     }
 
-    @AfterClass
+    @AfterClass(alwaysRun = true)
     public void quitDriver() {
         YouTubeUtils.logStatus("quitDriver", "Quitting driver");
-        // Quit the WebDriver instance
-        if (driver != null) {
-            driver.quit();
+        // Quit every WebDriver instance of the pool
+        if (pool != null) {
+            pool.shutdown();
         }
         YouTubeUtils.logStatus("quitDriver", "Done driver quit");
     }
 
-    @BeforeMethod
-    public void driverGet() {
-        // Navigate to https://www.youtube.com
-        driver.get("https://www.youtube.com");
+    @BeforeMethod(alwaysRun = true)
+    public void driverGet(Method method, Object[] parameters) {
+        // Tag this thread's log lines with the test and, for data-driven tests, the row number
+        YouTubeUtils.setTestContext(method.getName(), (parameters.length > 0) ? parameters[0] : null);
+
+        // Lease a driver for this thread and navigate to https://www.youtube.com, from a prefetched tab with -Dyt.tabs
+        long start = System.nanoTime();
+        TabPrefetcher.open(pool.lease(), "https://www.youtube.com");
+        StepMetrics.record("driverGet", "https://www.youtube.com", start);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void releaseDriver(ITestResult result) {
+        if (result.getStatus() == ITestResult.FAILURE && result.getThrowable() instanceof WebDriverException) {
+            // The browser may have crashed, so quit the driver rather than lease it to the next test
+            pool.discard();
+        } else {
+            // Return the driver to the pool, even when an assertion failed
+            pool.release();
+        }
+        YouTubeUtils.clearTestContext();
+    }
+
+    // WebDriver leased by the thread running the current test
+    private WebDriver driver() {
+        return DriverPool.current();
     }
 
     @Test(priority = 1, enabled = true, description = "Verify youtube url and print about page message")
     public void TestCase001() {
         YouTubeUtils.logStatus("TC001", "Start", "Verify youtube url and print about page message");
+        WebDriver driver = driver();
         // Assert current URL contains "youtube"
         String urlToContain = "youtube";
         Boolean status = YouTubeUtils.verifyCurrentUrlContains(driver, urlToContain);
         Assert.assertTrue(status, "Current url does not contain " + urlToContain);
 
         // Locate the About link at the bottom of the sidebar and Click on "About"
-        By aboutLocator = By.xpath("//a[contains(text(), 'About')]");
+        By aboutLocator = Locators.ABOUT_LINK;
         YouTubeUtils.scrollToViewport(driver, aboutLocator);
         ActionsWrapper.clickAW(driver, aboutLocator);
 
         // Print the message displayed on the screen
-        By messageLocator = By.xpath("//section[contains(@class, 'about__content')]");
+        By messageLocator = Locators.ABOUT_MESSAGE;
         YouTubeUtils.scrollToViewport(driver, messageLocator);
         YouTubeUtils.getDisplayedMessage(driver, messageLocator);
         YouTubeUtils.logStatus("TC001", "End", "Verify youtube url and print about page message");
@@ -73,28 +105,33 @@ public class TestCases {
     @Test(priority = 2, enabled = true, description = "Verify movie is marked 'A' for Mature and movie is either 'Comedy' or 'Animation'")
     public void TestCase002() {
         YouTubeUtils.logStatus("TC002", "Start", "Verify movie is marked 'A' for Mature and movie is either 'Comedy' or 'Animation'");
-        sa = new SoftAssert();
+        WebDriver driver = driver();
+        SoftAssert sa = new SoftAssert();
 
         // Navigate to the "Films" tab
-        By filmsTab = By.xpath("//a[contains(@title, 'Films') or contains(@title, 'Movies')]");
+        By filmsTab = Locators.guideTab("Films", "Movies");
         YouTubeUtils.scrollToViewport(driver, filmsTab);
         ActionsWrapper.clickAW(driver, filmsTab);
 
         // Scroll to the extreme right within the "Top Selling" section
         String section = "Top selling";
-        YouTubeUtils.scrollToExtreme(driver, By.xpath("//span[contains(text(), '"+ section +"')]/ancestor::div[contains(@class, 'item-section')]//button[contains(@aria-label, 'Next')]"));
+        YouTubeUtils.scrollToExtreme(driver, Locators.shelfNextButton(section));
 
         // Last movie
-        By lastMovie = By.xpath("(//span[contains(text(), '"+ section +"')]/ancestor::div[contains(@class, 'item-section')]//ytd-grid-movie-renderer)[last()]");
+        By lastMovie = Locators.shelfLastMovie(section);
+
+        // Read the certification and genre of the last movie together
+        Map<String, By> movieFields = new LinkedHashMap<>();
+        movieFields.put("certification", Locators.MOVIE_CERTIFICATION);
+        movieFields.put("genre", Locators.MOVIE_GENRE);
+        Map<String, String> movie = YouTubeUtils.getElementTexts(driver, lastMovie, movieFields);
 
         // Soft Assert on whether the movie is marked "A" for Mature or not
-        By filmCertificationLocator = By.xpath(".//p[not(contains(text(), 'Buy') or contains(text(), 'Rent'))]");
-        String filmCertification = YouTubeUtils.getElementText(driver, lastMovie, filmCertificationLocator);
+        String filmCertification = movie.get("certification");
         sa.assertEquals(filmCertification, "A", "The movie certification is not marked as 'A'");
 
         // Soft assert on whether the movie is either "Comedy" or "Animation"
-        By movieGenreLocator = By.xpath(".//span[contains(@class, 'metadata')]");
-        String movieGenre = YouTubeUtils.getElementText(driver, lastMovie, movieGenreLocator);
+        String movieGenre = movie.get("genre");
         sa.assertTrue(movieGenre.contains("Comedy") || movieGenre.contains("Animation"), "The movie genre is neither 'Comedy' nor 'Animation'");
 
         sa.assertAll();
@@ -104,32 +141,38 @@ public class TestCases {
     @Test(priority = 2, enabled = true, description = "Verify number of tracks is 50 or less")
     public void TestCase003() {
         YouTubeUtils.logStatus("TC003", "Start", "Verify number of tracks is 50 or less");
-        sa = new SoftAssert();
+        WebDriver driver = driver();
+        SoftAssert sa = new SoftAssert();
 
         // Navigate to the "Music" tab of the application
-        By musicTab = By.xpath("//a[contains(@title, 'Music')]");
+        By musicTab = Locators.guideTab("Music");
         YouTubeUtils.scrollToViewport(driver, musicTab);
         ActionsWrapper.clickAW(driver, musicTab);
 
         // Locate the first section of playlists
-        By firstSection = By.xpath("(//ytd-item-section-renderer)[1]");
+        By firstSection = Locators.FIRST_SECTION;
         YouTubeUtils.scrollToViewport(driver, firstSection);
 
         // Scroll to the extreme right within the first section
-        YouTubeUtils.scrollToExtreme(driver, By.xpath("(//ytd-item-section-renderer)[1]//button[contains(@aria-label, 'Next')]"));
+        YouTubeUtils.scrollToExtreme(driver, Locators.FIRST_SECTION_NEXT_BUTTON);
 
         // Last playlist
-        By lastPlaylist = By.xpath("((//ytd-item-section-renderer)[1]//ytd-compact-station-renderer)[last()]");
+        By lastPlaylist = Locators.FIRST_SECTION_LAST_PLAYLIST;
+
+        // Read the name and track count of the last playlist together
+        Map<String, By> playlistFields = new LinkedHashMap<>();
+        playlistFields.put("name", Locators.PLAYLIST_NAME);
+        playlistFields.put("trackCount", Locators.PLAYLIST_TRACK_COUNT);
+        Map<String, String> playlist = YouTubeUtils.getElementTexts(driver, lastPlaylist, playlistFields);
 
         // Print the name of the playlist
-        By playlistNameLocator = By.xpath(".//h3");
-        String playlistName = YouTubeUtils.getElementText(driver, lastPlaylist, playlistNameLocator);
+        String playlistName = playlist.get("name");
         YouTubeUtils.logStatus("TC003", "Step", "Playlist name: " + playlistName);
 
         // Count the number of tracks listed in the playlist
-        By numberOfTrackLocator = By.xpath(".//p[contains(@id, 'video-count')]");
-        int numberOfTracks = Integer.parseInt(YouTubeUtils.getElementText(driver, lastPlaylist, numberOfTrackLocator).replaceAll("[\\D]", ""));
+        int numberOfTracks = Integer.parseInt(playlist.get("trackCount").replaceAll("[\\D]", ""));
         YouTubeUtils.logStatus("TC003", "Step", "Track Count: " + numberOfTracks);
+        ResultsExporter.record(ResultsExporter.PLAYLISTS, playlistName, numberOfTracks);
 
         // Soft assert whether the number of tracks listed is less than or equal to 50
         sa.assertTrue((numberOfTracks <= 50), "The number of tracks listed is more than 50");
@@ -141,32 +184,34 @@ public class TestCases {
     @Test(priority = 1, enabled = true, description = "Verify news body and likes")
     public void TestCase004() {
         YouTubeUtils.logStatus("TC004", "Start", "Verify news body and likes");
+        WebDriver driver = driver();
         // Navigate to the "News" tab of the application
-        By newsTab = By.xpath("//a[contains(@title, 'News')]");
+        By newsTab = Locators.guideTab("News");
         YouTubeUtils.scrollToViewport(driver, newsTab);
         ActionsWrapper.clickAW(driver, newsTab);
 
         // Locate the "Latest News Posts" section
-        By latestNewsPosts = By.xpath("//span[contains(text(), 'Latest news post')]");
+        By latestNewsPosts = Locators.LATEST_NEWS_HEADING;
         YouTubeUtils.scrollToViewport(driver, latestNewsPosts);
 
         // Retrieve and print the body and the number of likes for each of the first 3 news posts
         int numberOfNewsPosts = 3;
-        By firstNNewsLocator = By.xpath("(//span[contains(text(), 'Latest news post')]/ancestor::ytd-rich-section-renderer//ytd-post-renderer)[position() <= "+ numberOfNewsPosts +"]");
+        By firstNNewsLocator = Locators.latestNewsPosts(numberOfNewsPosts);
         YouTubeUtils.getBodyAndViewCount(driver, firstNNewsLocator);
         YouTubeUtils.logStatus("TC004", "End", "Verify news body and likes");
     }
 
     @Test(priority = 1, enabled = true, description = "Verify video views count", dataProvider = "searchTerms", dataProviderClass = ExcelDP.class)
-    public void TestCase005(String searchTerms) {
-        YouTubeUtils.logStatus("TC005", "Start", "Verify video views count: " + searchTerms);
+    public void TestCase005(int row, String searchTerms) {
+        YouTubeUtils.logStatus("TC005", "Start", "Verify video views count: " + searchTerms + " (row " + row + ")");
+        WebDriver driver = driver();
         // Search for the item
-        By searchBox = By.xpath("//input[contains(@id, 'search')]");
+        By searchBox = Locators.SEARCH_BOX;
         ActionsWrapper.sendKeysAW(driver, searchBox, searchTerms);
 
         // Scroll through the search results until the total views for the videos reach 10 crore
         long totalCount = 10_00_00_000;
-        YouTubeUtils.scrollTillVideoCountReaches(driver, totalCount);
-        YouTubeUtils.logStatus("TC005", "End", "Verify video views count: " + searchTerms);
+        YouTubeUtils.scrollTillVideoCountReaches(driver, searchTerms, totalCount);
+        YouTubeUtils.logStatus("TC005", "End", "Verify video views count: " + searchTerms + " (row " + row + ")");
     }
 }
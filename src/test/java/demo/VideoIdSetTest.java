@@ -0,0 +1,109 @@
+package demo;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import demo.utils.VideoIdSet;
+import demo.utils.VideoIds;
+
+public class VideoIdSetTest {
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    /**
+     * Provides texts that are not video IDs: wrong lengths, characters outside base64url, and last characters
+     * carrying bits beyond the 64 of an ID (their value is not a multiple of 4).
+     *
+     * @return A two-dimensional array of objects holding the text.
+     */
+    @DataProvider(name = "invalidIds")
+    public Object[][] invalidIds() {
+        return new Object[][]{{null}, {""}, {"dQw4w9WgXc"}, {"dQw4w9WgXcQQ"}, {"dQw4w9WgX=Q"}, {"dQw4w9WgX\u00e9Q"},
+                {"AAAAAAAAAAB"}, {"AAAAAAAAAAC"}, {"AAAAAAAAAAD"}, {"___________"}};
+    }
+
+    @Test(description = "Verify video IDs pack to a long that unpacks to the same ID")
+    public void packRoundTrip() {
+        Assert.assertEquals(VideoIds.pack("AAAAAAAAAAA"), 0L);
+        Assert.assertEquals(VideoIds.pack("__________8"), -1L);
+        Assert.assertEquals(unpack(VideoIds.pack("dQw4w9WgXcQ")), "dQw4w9WgXcQ");
+
+        Random random = new Random(1);
+        for (int i = 0; i < 10000; i++) {
+            long id = random.nextLong();
+            Assert.assertEquals(VideoIds.pack(unpack(id)), id, unpack(id));
+        }
+    }
+
+    @Test(dataProvider = "invalidIds", description = "Verify texts that are not video IDs are rejected")
+    public void rejectsInvalidId(String text) {
+        Assert.assertThrows(IllegalArgumentException.class, () -> VideoIds.pack(text));
+    }
+
+    @Test(description = "Verify each ID is added once while the hash set grows")
+    public void detectsDuplicatesAcrossGrowth() {
+        VideoIdSet set = VideoIdSet.hashSet();
+        long initialBytes = set.bytes();
+        Random random = new Random(2);
+        long[] ids = new long[100000];
+        ids[0] = 0;
+        for (int i = 1; i < ids.length; i++) {
+            ids[i] = random.nextLong();
+        }
+
+        for (long id : ids) {
+            Assert.assertTrue(set.add(unpack(id)), unpack(id));
+        }
+        Assert.assertTrue(set.bytes() > initialBytes, "The table did not grow");
+        for (long id : ids) {
+            Assert.assertFalse(set.add(id), unpack(id));
+        }
+        Assert.assertEquals(set.size(), ids.length);
+
+        // Texts that cannot be packed are always counted as new, and never stored
+        Assert.assertTrue(set.add("not an ID"));
+        Assert.assertTrue(set.add("not an ID"));
+        Assert.assertEquals(set.size(), ids.length);
+    }
+
+    @Test(description = "Verify the Bloom filter keeps every ID and stays near its false-positive rate")
+    public void bloomFilterFalsePositiveBound() {
+        int expectedIds = 100000;
+        double falsePositiveRate = 0.01;
+        VideoIdSet filter = VideoIdSet.bloomFilter(expectedIds, falsePositiveRate);
+        Random random = new Random(3);
+        long[] ids = new long[expectedIds];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = random.nextLong();
+            filter.add(ids[i]);
+        }
+        for (long id : ids) {
+            Assert.assertFalse(filter.add(id), unpack(id));
+        }
+
+        // Each probe is added too, so probe a few new IDs to keep the filter close to its expected load
+        int probes = 5000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (!filter.add(random.nextLong())) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue(falsePositives <= probes * falsePositiveRate * 1.5, falsePositives + " false positives in " + probes);
+        Assert.assertTrue(filter.bytes() <= expectedIds * 1.25, filter.bytes() + " bytes");
+    }
+
+    // Inverse of VideoIds.pack: ten characters of 6 bits and a last one of 4 bits followed by two zero bits
+    private static String unpack(long id) {
+        char[] chars = new char[11];
+        chars[10] = ALPHABET.charAt((int) (id & 15) << 2);
+        id >>>= 4;
+        for (int i = 9; i >= 0; i--) {
+            chars[i] = ALPHABET.charAt((int) (id & 63));
+            id >>>= 6;
+        }
+        return new String(chars);
+    }
+}
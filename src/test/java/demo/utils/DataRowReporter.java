@@ -0,0 +1,94 @@
+package demo.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.IReporter;
+import org.testng.ISuite;
+import org.testng.ISuiteResult;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.xml.XmlSuite;
+
+public class DataRowReporter implements IReporter {
+    /**
+     * Writes one line per data-driven test invocation to "data-rows.csv" in the output directory,
+     * sorted by test method and row number so reports of parallel runs can be compared line by line,
+     * and records the duration of every test and data row for scheduling the next run.
+     *
+     * @param xmlSuites The suites that were run.
+     * @param suites The results of the suites.
+     * @param outputDirectory The directory where TestNG writes its reports.
+     */
+    @Override
+    public void generateReport(List<XmlSuite> xmlSuites, List<ISuite> suites, String outputDirectory) {
+        // Collect every invocation that received parameters
+        List<ITestResult> results = new ArrayList<>();
+        for (ISuite suite : suites) {
+            for (ISuiteResult suiteResult : suite.getResults().values()) {
+                ITestContext context = suiteResult.getTestContext();
+                results.addAll(context.getPassedTests().getAllResults());
+                results.addAll(context.getFailedTests().getAllResults());
+                results.addAll(context.getSkippedTests().getAllResults());
+            }
+        }
+
+        // Record how long each test and data row took, to balance the next run
+        Map<String, Long> durations = new HashMap<>();
+        for (ITestResult result : results) {
+            if (result.getStatus() != ITestResult.SKIP) {
+                Object[] parameters = result.getParameters();
+                Object dataRow = (parameters.length == 0) ? null : parameters[parameters.length - 1];
+                durations.put(DurationStore.key(result.getMethod().getMethodName(), dataRow), result.getEndMillis() - result.getStartMillis());
+            }
+        }
+        DurationStore.update(durations);
+
+        results.removeIf(result -> result.getParameters().length == 0);
+        results.sort(Comparator.comparing((ITestResult result) -> result.getMethod().getQualifiedName()).thenComparingInt(DataRowReporter::rowNumber).thenComparing(DataRowReporter::parameters));
+
+        File report = new File(outputDirectory, "data-rows.csv");
+        report.getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(report, StandardCharsets.UTF_8)) {
+            writer.println("method,row,status,durationMs,parameters");
+            for (ITestResult result : results) {
+                writer.println(String.format("%s,%s,%s,%s,\"%s\"", result.getMethod().getMethodName(), rowNumber(result), status(result), result.getEndMillis() - result.getStartMillis(), parameters(result)));
+            }
+            YouTubeUtils.logStatus("generateReport", "Data row report: " + report.getAbsolutePath());
+        } catch (IOException e) {
+            YouTubeUtils.logStatus("generateReport", "Exception\n\t\t\t" + e.getMessage());
+        }
+    }
+
+    // Row number passed as the first parameter, or 0 when the data provider does not supply one
+    private static int rowNumber(ITestResult result) {
+        Object first = result.getParameters()[0];
+        return (first instanceof Integer) ? (Integer) first : 0;
+    }
+
+    private static String status(ITestResult result) {
+        switch (result.getStatus()) {
+            case ITestResult.SUCCESS:
+                return "PASS";
+            case ITestResult.FAILURE:
+                return "FAIL";
+            default:
+                return "SKIP";
+        }
+    }
+
+    private static String parameters(ITestResult result) {
+        List<String> values = new ArrayList<>();
+        for (Object parameter : result.getParameters()) {
+            values.add(String.valueOf(parameter).replace("\"", "\"\""));
+        }
+        return String.join(" | ", values);
+    }
+}
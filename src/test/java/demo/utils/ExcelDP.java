@@ -1,17 +1,32 @@
 package demo.utils;
 
 import java.io.File;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.testng.annotations.DataProvider;
 
 public class ExcelDP {
     /**
-     * Provides data for searching.
+     * Provides data for searching. Rows are run in parallel on the suite's data provider threads
+     * (one browser worker each), and can be sharded across JVMs with the "yt.shard" and "yt.shards"
+     * system properties (the other tests are sharded by ShardInterceptor). Once durations of the rows
+     * have been recorded (see DurationStore), rows are balanced across shards by duration and handed to
+     * the workers longest first; until then,
+     * shard k of n keeps the rows whose number modulo n equals k. Rows finished by an earlier run
+     * are skipped when a checkpoint journal is given with "yt.checkpoint".
      *
-     * @return A two-dimensional array of objects containing search terms.
+     * @param method The test method the data is provided for.
+     * @return An iterator of arrays of objects, each holding the 1-based row number and the search term of a row.
+     *         Without recorded durations, rows are read lazily from the sheet as TestNG consumes them; balancing
+     *         by duration reads every unfinished row of the sheet into memory first, to sort them.
      */
-    @DataProvider(name = "searchTerms")
-    public Object[][] searchTerms() {
+    @DataProvider(name = "searchTerms", parallel = true)
+    public Iterator<Object[]> searchTerms(Method method) {
         // Path to the Excel file containing search terms
         String filePath = System.getProperty("user.dir") + File.separator + "src" + File.separator + "test" + File.separator + "resources" + File.separator + "itemsToSearch.xlsx";
 
@@ -21,7 +36,70 @@ public class ExcelDP {
         // Column index containing the search terms
         int columnIndex = 0;
 
-        // Retrieve data from the Excel file using ExcelUtils
-        return ExcelUtils.readDataFromExcel(filePath, worksheetName, columnIndex);
+        // Shard of the sheet handled by this JVM
+        int shards = ShardInterceptor.shards();
+        int shard = ShardInterceptor.shard();
+        YouTubeUtils.logStatus("searchTerms", String.format("Reading shard %s of %s", shard, shards));
+
+        // Stream data from the Excel file using ExcelUtils
+        Iterator<Object[]> data = ExcelUtils.streamDataFromExcel(filePath, worksheetName, columnIndex);
+
+        // Balance the rows by their recorded durations, estimating rows not recorded yet at the average
+        Map<String, Long> durations = DurationStore.load();
+        List<Long> known = new ArrayList<>();
+        durations.forEach((key, millis) -> {
+            if (key.startsWith(method.getName() + "[")) {
+                known.add(millis);
+            }
+        });
+        if (!known.isEmpty()) {
+            long average = known.stream().mapToLong(Long::longValue).sum() / known.size();
+            List<Object[]> rows = new ArrayList<>();
+            int rowNumber = 0;
+            while (data.hasNext()) {
+                Object value = data.next()[0];
+                if (!isFinished(++rowNumber, value)) {
+                    rows.add(new Object[]{rowNumber, value});
+                }
+            }
+            return DurationStore.schedule(rows, row -> durations.getOrDefault(DurationStore.key(method.getName(), row[1]), average), shards, shard).iterator();
+        }
+
+        // Tag each row with its row number so results can be matched across runs
+        return new Iterator<Object[]>() {
+            private int rowNumber;
+            private Object[] next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && data.hasNext()) {
+                    Object value = data.next()[0];
+                    rowNumber++;
+                    if (rowNumber % shards == shard && !isFinished(rowNumber, value)) {
+                        next = new Object[]{rowNumber, value};
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Object[] next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Object[] row = next;
+                next = null;
+                return row;
+            }
+        };
+    }
+
+    // Rows an earlier run finished, according to the checkpoint journal given by -Dyt.checkpoint
+    private static boolean isFinished(int rowNumber, Object value) {
+        if (!CrawlCheckpoint.isFinished(String.valueOf(value))) {
+            return false;
+        }
+        YouTubeUtils.logStatus("searchTerms", String.format("Skipping row %s, finished by an earlier run: %s", rowNumber, value));
+        return true;
     }
 }
@@ -0,0 +1,33 @@
+package demo.utils;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestResult;
+
+public class FailureEvidenceListener implements IInvokedMethodListener, ISuiteListener {
+    /**
+     * Captures the evidence of a failed test while its thread still holds the WebDriver session,
+     * before the session is released by the test's after-method.
+     *
+     * @param method The method that was invoked.
+     * @param testResult The result of the invocation.
+     */
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (method.isTestMethod() && testResult.getStatus() == ITestResult.FAILURE) {
+            FailureEvidence.testFailed(DriverPool.current(), testResult.getMethod().getMethodName());
+        }
+    }
+
+    /**
+     * Waits for the evidence of the suite to be written before the JVM exits.
+     *
+     * @param suite The suite that was run.
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        FailureEvidence.awaitWritten();
+    }
+}
@@ -0,0 +1,26 @@
+package demo.utils;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+public class ResultsExportListener implements ISuiteListener {
+    /**
+     * Starts a new results workbook for the suite.
+     *
+     * @param suite The suite about to be run.
+     */
+    @Override
+    public void onStart(ISuite suite) {
+        ResultsExporter.open();
+    }
+
+    /**
+     * Writes the records still queued and saves the results workbook.
+     *
+     * @param suite The suite that was run.
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        ResultsExporter.close();
+    }
+}
@@ -0,0 +1,85 @@
+package demo.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.IMethodInterceptor;
+import org.testng.IMethodInstance;
+import org.testng.ITestContext;
+
+public class ShardInterceptor implements IMethodInterceptor {
+    /**
+     * Keeps the tests of this JVM's shard, given by the "yt.shard" and "yt.shards" system properties.
+     * Data driven tests run on every shard, as ExcelDP splits their rows; the other tests are split across
+     * shards by their recorded durations (see DurationStore), or round-robin until durations are recorded.
+     *
+     * @param methods The test methods about to be run.
+     * @param context The test context.
+     * @return The test methods of this shard, in their original order.
+     */
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        int shards = shards();
+        int shard = shard();
+        if (shards == 1) {
+            return methods;
+        }
+
+        // Estimate tests not recorded yet at the average of the recorded ones
+        Map<String, Long> durations = DurationStore.load();
+        List<IMethodInstance> single = new ArrayList<>();
+        long known = 0;
+        long total = 0;
+        for (IMethodInstance method : methods) {
+            if (!method.getMethod().isDataDriven()) {
+                single.add(method);
+                Long millis = durations.get(DurationStore.key(method.getMethod().getMethodName(), null));
+                if (millis != null) {
+                    known++;
+                    total += millis;
+                }
+            }
+        }
+        long average = (known == 0) ? 1 : total / known;
+        List<IMethodInstance> assigned = DurationStore.schedule(single,
+                method -> durations.getOrDefault(DurationStore.key(method.getMethod().getMethodName(), null), average), shards, shard);
+
+        List<IMethodInstance> kept = new ArrayList<>();
+        for (IMethodInstance method : methods) {
+            if (method.getMethod().isDataDriven() || assigned.contains(method)) {
+                kept.add(method);
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Returns the number of shards the suite is split into, given by the "yt.shards" system property.
+     *
+     * @return The number of shards, 1 by default.
+     * @throws IllegalArgumentException If the number is below 1.
+     */
+    public static int shards() {
+        int shards = Integer.getInteger("yt.shards", 1);
+        if (shards < 1) {
+            throw new IllegalArgumentException("yt.shards must be at least 1, was " + shards);
+        }
+        return shards;
+    }
+
+    /**
+     * Returns the shard run by this JVM, given by the "yt.shard" system property.
+     *
+     * @return The shard, from 0 to shards() - 1, 0 by default.
+     * @throws IllegalArgumentException If the shard is outside that range.
+     */
+    public static int shard() {
+        int shards = shards();
+        int shard = Integer.getInteger("yt.shard", 0);
+        if (shard < 0 || shard >= shards) {
+            throw new IllegalArgumentException(String.format("yt.shard must be from 0 to %s for %s shards, was %s", shards - 1, shards, shard));
+        }
+        return shard;
+    }
+}
@@ -0,0 +1,33 @@
+package demo.utils;
+
+import java.io.File;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+
+public class StepMetricsListener implements ISuiteListener {
+    /**
+     * Clears the latencies left over from a previous suite in the same JVM.
+     *
+     * @param suite The suite about to be run.
+     */
+    @Override
+    public void onStart(ISuite suite) {
+        StepMetrics.reset();
+        PageMetrics.reset();
+    }
+
+    /**
+     * Exports the p50/p95/p99 latency of every step as CSV and JSON to the directory given by the
+     * "yt.reports.dir" system property, "build/reports/steps" by default, together with the page metrics
+     * of every step when they are recorded (see PageMetrics).
+     *
+     * @param suite The suite that was run.
+     */
+    @Override
+    public void onFinish(ISuite suite) {
+        File directory = new File(System.getProperty("yt.reports.dir", "build/reports/steps"));
+        StepMetrics.export(directory);
+        PageMetrics.export(directory);
+    }
+}
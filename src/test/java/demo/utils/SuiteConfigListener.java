@@ -0,0 +1,42 @@
+package demo.utils;
+
+import java.net.URL;
+import java.util.List;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+
+public class SuiteConfigListener implements IAlterSuiteListener {
+    /**
+     * Applies the thread count given by the "yt.threads" system property and the data provider
+     * worker count given by "yt.workers" to every suite, overriding the thread-count and
+     * data-provider-thread-count attributes of testng.xml. When running on a Selenium Grid
+     * ("yt.grid.url"), both default to the number of session slots of the grid, so adding nodes
+     * adds workers.
+     *
+     * @param suites The suites about to be run.
+     */
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        Integer threads = Integer.getInteger("yt.threads");
+        Integer workers = Integer.getInteger("yt.workers");
+        URL grid = SeleniumGrid.url();
+        if (grid != null) {
+            int slots = SeleniumGrid.slots(grid);
+            YouTubeUtils.logStatus("alter", String.format("Grid %s has %s session slots", grid, slots));
+            if (slots > 0) {
+                threads = (threads != null) ? threads : slots;
+                workers = (workers != null) ? workers : slots;
+            }
+        }
+        for (XmlSuite suite : suites) {
+            if (threads != null) {
+                suite.setThreadCount(threads);
+            }
+            if (workers != null) {
+                suite.setDataProviderThreadCount(workers);
+            }
+            YouTubeUtils.logStatus("alter", String.format("Suite '%s' runs %s in parallel on %s threads, data rows on %s workers", suite.getName(), suite.getParallel(), suite.getThreadCount(), suite.getDataProviderThreadCount()));
+        }
+    }
+}